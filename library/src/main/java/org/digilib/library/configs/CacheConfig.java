@@ -0,0 +1,45 @@
+package org.digilib.library.configs;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Caches for reference data that changes a few times a year, read through {@code @Cacheable}.
+ * <p>
+ * Every cache is a size and time bounded Caffeine cache, evicting by W-TinyLFU. Evictions made inside a transaction
+ * are applied once it commits, so a concurrent read cannot put the old value back before the change is visible.
+ * Statistics are published as {@code cache.*} metrics and the caches are listed by the {@code caches} actuator endpoint.
+ */
+@Configuration
+public class CacheConfig {
+
+    public static final String GENRES = "genres";
+
+    public static final String GENRE_DATA = "genre-data";
+
+    public static final String LIBRARIES = "libraries";
+
+    public static final String ROLE_IDS = "role-ids";
+
+    @Bean
+    public CacheManager cacheManager(
+            @Value("${reference-cache.max-size}") long maxSize,
+            @Value("${reference-cache.ttl-seconds}") long ttlSeconds
+    ) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(GENRES, GENRE_DATA, LIBRARIES, ROLE_IDS);
+        cacheManager.setCaffeine(Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats());
+        cacheManager.setAllowNullValues(false);
+
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+}
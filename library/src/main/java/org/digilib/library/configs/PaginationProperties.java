@@ -0,0 +1,48 @@
+package org.digilib.library.configs;
+
+import org.digilib.library.errors.exceptions.InvalidRequestParamException;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.Map;
+
+/**
+ * Page sizes for paged endpoints.
+ * @param defaultSize size used when a request does not pass one.
+ * @param maxSize largest size accepted by endpoints without their own limit.
+ * @param endpointMaxSize per endpoint limits, e.g. {@code pagination.endpoint-max-size.books=500}.
+ */
+@ConfigurationProperties(prefix = "pagination")
+public record PaginationProperties(
+        int defaultSize,
+
+        int maxSize,
+
+        Map<String, Integer> endpointMaxSize
+) {
+    public PaginationProperties {
+        endpointMaxSize = endpointMaxSize == null ? Map.of() : Map.copyOf(endpointMaxSize);
+    }
+
+    public int maxSizeFor(String endpoint) {
+        return endpointMaxSize.getOrDefault(endpoint, maxSize);
+    }
+
+    /**
+     * Resolves the page size of a request.
+     * @param endpoint key of the endpoint in {@code pagination.endpoint-max-size}.
+     * @param requested size passed by the client, may be null.
+     * @return the requested size, or the default one when absent.
+     * @throws InvalidRequestParamException when the size is not positive or exceeds the endpoint limit.
+     */
+    public int sizeFor(String endpoint, Integer requested) {
+        if (requested == null) {
+            return Math.min(defaultSize, maxSizeFor(endpoint));
+        }
+
+        int size = requested;
+        int max = maxSizeFor(endpoint);
+        InvalidRequestParamException.throwIf(size, "size", value -> value <= 0 || value > max);
+
+        return size;
+    }
+}
@@ -0,0 +1,68 @@
+package org.digilib.library.configs;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.ser.PropertyWriter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import lombok.NonNull;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.AbstractMappingJacksonResponseBodyAdvice;
+
+/**
+ * Leaves the fields that were not selected out of sparse listings.
+ * <p>
+ * Records tagged with {@code @JsonFilter(SparseFieldsAdvice.FILTER)} are serialized in full by default. When the request
+ * carries a {@code fields} parameter their null properties are omitted, so a field that was not read is absent from
+ * the payload instead of being returned as {@code null}.
+ */
+@RestControllerAdvice
+public class SparseFieldsAdvice extends AbstractMappingJacksonResponseBodyAdvice {
+
+    public static final String FILTER = "sparseFields";
+
+    public static final String FIELDS_PARAM = "fields";
+
+    /**
+     * Filters of every response without a field selection, registered on the application's object mapper.
+     */
+    public static final FilterProvider FULL = new SimpleFilterProvider()
+            .setDefaultFilter(SimpleBeanPropertyFilter.serializeAll());
+
+    public static final FilterProvider SPARSE = new SimpleFilterProvider()
+            .addFilter(FILTER, new NonNullFilter());
+
+    @Override
+    protected void beforeBodyWriteInternal(
+            @NonNull MappingJacksonValue bodyContainer,
+            @NonNull MediaType contentType,
+            @NonNull MethodParameter returnType,
+            @NonNull ServerHttpRequest request,
+            @NonNull ServerHttpResponse response
+    ) {
+        if (request instanceof ServletServerHttpRequest servletRequest
+                && servletRequest.getServletRequest().getParameter(FIELDS_PARAM) != null) {
+            bodyContainer.setFilters(SPARSE);
+        }
+    }
+
+    private static final class NonNullFilter extends SimpleBeanPropertyFilter {
+
+        @Override
+        public void serializeAsField(Object pojo, JsonGenerator gen, SerializerProvider provider, PropertyWriter writer)
+                throws Exception {
+            if (writer instanceof BeanPropertyWriter property && property.get(pojo) == null) {
+                return;
+            }
+            writer.serializeAsField(pojo, gen, provider);
+        }
+    }
+}
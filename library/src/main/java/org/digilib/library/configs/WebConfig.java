@@ -1,12 +1,12 @@
 package org.digilib.library.configs;
 
-import jakarta.servlet.Filter;
 import lombok.NonNull;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.web.config.EnableSpringDataWebSupport;
 import org.springframework.http.MediaType;
-import org.springframework.web.filter.ShallowEtagHeaderFilter;
 import org.springframework.web.servlet.config.annotation.ContentNegotiationConfigurer;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
@@ -14,6 +14,7 @@ import java.nio.charset.StandardCharsets;
 import java.util.Map;
 
 @Configuration
+@EnableConfigurationProperties(PaginationProperties.class)
 @EnableSpringDataWebSupport(pageSerializationMode = EnableSpringDataWebSupport.PageSerializationMode.VIA_DTO)
 public class WebConfig implements WebMvcConfigurer {
 
@@ -33,7 +34,7 @@ public class WebConfig implements WebMvcConfigurer {
     }
 
     @Bean
-    public Filter shallowEtagHeaderFilter() {
-        return new ShallowEtagHeaderFilter();
+    public Jackson2ObjectMapperBuilderCustomizer sparseFieldsFilters() {
+        return builder -> builder.filters(SparseFieldsAdvice.FULL);
     }
 }
@@ -12,28 +12,44 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.digilib.library.configs.PaginationProperties;
 import org.digilib.library.errors.exceptions.InvalidRequestParamException;
 import org.digilib.library.models.Author;
 import org.digilib.library.models.Book;
+import org.digilib.library.models.dto.CollectionVersion;
+import org.digilib.library.models.dto.CursorPage;
+import org.digilib.library.models.dto.SlicePage;
 import org.digilib.library.models.dto.author.AuthorCreateView;
 import org.digilib.library.models.dto.author.AuthorData;
 import org.digilib.library.models.dto.author.AuthorUpdateView;
 import org.digilib.library.models.dto.book.BookData;
 import org.digilib.library.openapi.ErrorResponse;
 import org.digilib.library.services.AuthorService;
+import org.digilib.library.utils.Cursors;
+import org.digilib.library.utils.ETags;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.time.Instant;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
-import static org.digilib.library.LibraryApplication.PAGE_SIZE;
+import static org.digilib.library.utils.Cursors.CURSOR_PARAM;
 
 @RestController
 @RequestMapping("/api")
@@ -43,6 +59,8 @@ public class AuthorController {
 
     private final AuthorService authorService;
 
+    private final PaginationProperties pagination;
+
     @Operation(
             summary = "Get all authors",
             description = "Returns a paginated list of authors. " +
@@ -78,6 +96,10 @@ public class AuthorController {
                             )
                     )
             ),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "Authors unchanged since the version in If-None-Match"
+            ),
             @ApiResponse(
                     responseCode = "400",
                     description = "Invalid page or sorts",
@@ -112,23 +134,105 @@ public class AuthorController {
                             """,
                     array = @ArraySchema(schema = @Schema(example = "lastName"))
             )
-            @RequestParam(name = "sorts") String[] sorts) {
+            @RequestParam(name = "sorts") String[] sorts,
+            @Parameter(description = "Page size, defaults to 15 and is capped per endpoint", example = "15")
+            @RequestParam(name = "size", required = false) Integer size,
+            @Parameter(
+                    description = "Fields to return, comma separated, every field when omitted. The id is always returned",
+                    example = "id,firstName,lastName"
+            )
+            @RequestParam(name = "fields", required = false) Set<String> fields,
+            WebRequest webRequest) {
 
         InvalidRequestParamException.notPositivePage(pageNumber);
         InvalidRequestParamException.notValidSorts(sorts, Author.class);
 
+        CollectionVersion version = authorService.findCollectionVersion();
+        String etag = ETags.of("authors", version);
+        if (webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .cacheControl(CacheControl.maxAge(60, TimeUnit.SECONDS).cachePublic())
+                    .build();
+        }
+
         Pageable pageable = PageRequest.of(
                 pageNumber - 1,
-                PAGE_SIZE,
+                pagination.sizeFor("authors", size),
                 Sort.by(sorts)
         );
 
-        Page<AuthorData> authorPage = authorService.findAll(pageable);
+        Page<AuthorData> authorPage = authorService.findAll(pageable, Objects.requireNonNullElse(fields, Set.of()), version.count());
         return ResponseEntity.ok()
+                .eTag(etag)
                 .cacheControl(CacheControl.maxAge(60, TimeUnit.SECONDS).cachePublic())
                 .body(authorPage);
     }
 
+    @Operation(
+            summary = "Get all authors by cursor",
+            description = "Returns a window of authors after the given cursor using keyset paging. " +
+                    "Pass an empty cursor for the first window and the returned nextCursor for the following ones."
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Window of results with the cursor of the next one",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = CursorPage.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid cursor or sorts",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponse.class),
+                            examples = @ExampleObject(
+                                    name = "InvalidCursor",
+                                    value = """
+                                            {
+                                              "code": 2,
+                                              "status": 400,
+                                              "error": "BAD_REQUEST",
+                                              "message": "The supplied cursor is not valid",
+                                              "path": "/api/authors",
+                                              "timestamp": "2025-12-02T21:44:08.430Z"
+                                            }
+                                            """
+                            )
+                    )
+            )
+    })
+    @GetMapping(value = "/authors", params = CURSOR_PARAM)
+    public ResponseEntity<CursorPage<AuthorData>> getAuthorsByCursor(
+            @Parameter(description = "Continuation token of the previous window, empty for the first one")
+            @RequestParam(name = CURSOR_PARAM) String cursor,
+            @Parameter(
+                    description = """
+                            Sorting fields (property names), the id is always appended as a tie breaker.
+                            Multiple values are passed by repeating the parameter, e.g.:
+                            ?cursor=&sorts=lastName
+                            """,
+                    array = @ArraySchema(schema = @Schema(example = "lastName"))
+            )
+            @RequestParam(name = "sorts") String[] sorts,
+            @Parameter(description = "Page size, defaults to 15 and is capped per endpoint", example = "15")
+            @RequestParam(name = "size", required = false) Integer size,
+            @Parameter(description = "Not supported with cursor paging, windows are always returned with every field")
+            @RequestParam(name = "fields", required = false) Set<String> fields) {
+
+        InvalidRequestParamException.notWithCursor(fields);
+        InvalidRequestParamException.notKeysetSortable(sorts, Author.class);
+
+        ScrollPosition position = Cursors.decode(cursor, Author.class, sorts);
+
+        Window<AuthorData> authors = authorService.findAll(position, Sort.by(sorts), Limit.of(pagination.sizeFor("authors", size)));
+
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(60, TimeUnit.SECONDS).cachePublic())
+                .body(CursorPage.of(authors));
+    }
+
 
     @Operation(
             summary = "Get books by author",
@@ -219,24 +323,172 @@ public class AuthorController {
                             """,
                     array = @ArraySchema(schema = @Schema(example = "title"))
             )
-            @RequestParam(name = "sorts") String[] sorts) {
+            @RequestParam(name = "sorts") String[] sorts,
+            @Parameter(description = "Page size, defaults to 15 and is capped per endpoint", example = "15")
+            @RequestParam(name = "size", required = false) Integer size,
+            @Parameter(
+                    description = "Fields to return, comma separated, every field when omitted. The id is always returned",
+                    example = "isbn,title,imageUrl"
+            )
+            @RequestParam(name = "fields", required = false) Set<String> fields) {
 
         InvalidRequestParamException.notPositivePage(pageNumber);
         InvalidRequestParamException.notValidSorts(sorts, Book.class);
 
         Pageable pageable = PageRequest.of(
                 pageNumber - 1,
-                PAGE_SIZE,
+                pagination.sizeFor("author-books", size),
                 Sort.by(sorts)
         );
 
-        Page<BookData> bookPage = authorService.findBooksByAuthor(id, pageable);
+        Page<BookData> bookPage = authorService.findBooksByAuthor(id, pageable, Objects.requireNonNullElse(fields, Set.of()));
 
         return ResponseEntity.ok()
                 .cacheControl(CacheControl.maxAge(60, TimeUnit.SECONDS).cachePublic())
                 .body(bookPage);
     }
 
+    @Operation(
+            summary = "Get books by author by cursor",
+            description = "Returns a window of books written by the given author after the given cursor using keyset paging. " +
+                    "Pass an empty cursor for the first window and the returned nextCursor for the following ones."
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Window of results with the cursor of the next one",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = CursorPage.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid cursor or sorts",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponse.class),
+                            examples = @ExampleObject(
+                                    name = "InvalidCursor",
+                                    value = """
+                                            {
+                                              "code": 2,
+                                              "status": 400,
+                                              "error": "BAD_REQUEST",
+                                              "message": "The supplied cursor is not valid",
+                                              "path": "/api/authors/1/books",
+                                              "timestamp": "2025-12-02T21:44:08.430Z"
+                                            }
+                                            """
+                            )
+                    )
+            )
+    })
+    @GetMapping(value = "/authors/{id}/books", params = CURSOR_PARAM)
+    public ResponseEntity<CursorPage<BookData>> getBooksByAuthorByCursor(
+            @Parameter(description = "ID of the author", example = "1")
+            @PathVariable long id,
+            @Parameter(description = "Continuation token of the previous window, empty for the first one")
+            @RequestParam(name = CURSOR_PARAM) String cursor,
+            @Parameter(
+                    description = """
+                            Sorting fields (property names), the id is always appended as a tie breaker.
+                            Multiple values are passed by repeating the parameter, e.g.:
+                            ?cursor=&sorts=title
+                            """,
+                    array = @ArraySchema(schema = @Schema(example = "title"))
+            )
+            @RequestParam(name = "sorts") String[] sorts,
+            @Parameter(description = "Page size, defaults to 15 and is capped per endpoint", example = "15")
+            @RequestParam(name = "size", required = false) Integer size,
+            @Parameter(description = "Not supported with cursor paging, windows are always returned with every field")
+            @RequestParam(name = "fields", required = false) Set<String> fields) {
+
+        InvalidRequestParamException.notWithCursor(fields);
+        InvalidRequestParamException.notKeysetSortable(sorts, Book.class);
+
+        ScrollPosition position = Cursors.decode(cursor, Book.class, sorts);
+
+        Window<BookData> books = authorService.findBooksByAuthor(id, position, Sort.by(sorts), Limit.of(pagination.sizeFor("author-books", size)));
+
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(60, TimeUnit.SECONDS).cachePublic())
+                .body(CursorPage.of(books));
+    }
+
+    @Operation(
+            summary = "Get books by author without totals",
+            description = "Returns a page of books written by the given author. " +
+                    "Skips the total count query; hasNext is resolved by fetching one extra row."
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Slice of results without totals",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = SlicePage.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid page or sorts",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponse.class),
+                            examples = @ExampleObject(
+                                    name = "InvalidPageOrSorts",
+                                    value = """
+                                            {
+                                              "code": 2,
+                                              "status": 400,
+                                              "error": "BAD_REQUEST",
+                                              "message": "The supplied value for page is not valid",
+                                              "path": "/api/authors/1/books",
+                                              "timestamp": "2025-12-02T21:44:08.430Z"
+                                            }
+                                            """
+                            )
+                    )
+            )
+    })
+    @GetMapping(value = "/authors/{id}/books", params = {"count=false", "!" + CURSOR_PARAM})
+    public ResponseEntity<SlicePage<BookData>> getBooksByAuthorSlice(
+            @Parameter(description = "ID of the author", example = "1")
+            @PathVariable long id,
+            @Parameter(description = "Page number starting from 1", example = "1")
+            @RequestParam(name = "page") int pageNumber,
+            @Parameter(
+                    description = """
+                            Sorting fields (property names).
+                            Multiple values are passed by repeating the parameter, e.g.:
+                            ?page=1&count=false&sorts=title
+                            """,
+                    array = @ArraySchema(schema = @Schema(example = "title"))
+            )
+            @RequestParam(name = "sorts") String[] sorts,
+            @Parameter(description = "Page size, defaults to 15 and is capped per endpoint", example = "15")
+            @RequestParam(name = "size", required = false) Integer size,
+            @Parameter(
+                    description = "Fields to return, comma separated, every field when omitted. The id is always returned",
+                    example = "isbn,title,imageUrl"
+            )
+            @RequestParam(name = "fields", required = false) Set<String> fields) {
+
+        InvalidRequestParamException.notPositivePage(pageNumber);
+        InvalidRequestParamException.notValidSorts(sorts, Book.class);
+
+        var pageable = PageRequest.of(
+                pageNumber - 1,
+                pagination.sizeFor("author-books", size),
+                Sort.by(sorts)
+        );
+
+        Slice<BookData> books = authorService.findBooksSliceByAuthor(id, pageable, Objects.requireNonNullElse(fields, Set.of()));
+
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(60, TimeUnit.SECONDS).cachePublic())
+                .body(SlicePage.of(books));
+    }
+
     
     @Operation(
             summary = "Create a new author",
@@ -391,6 +643,10 @@ public class AuthorController {
                             )
                     )
             ),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "Author unchanged since the version in If-None-Match or If-Modified-Since"
+            ),
             @ApiResponse(
                     responseCode = "404",
                     description = "Author not found",
@@ -416,13 +672,27 @@ public class AuthorController {
     @GetMapping("/authors/{id}")
     public ResponseEntity<AuthorData> getAuthor(
             @Parameter(description = "ID of the author", example = "1")
-            @PathVariable long id) {
+            @PathVariable long id,
+            WebRequest webRequest) {
+
+        // answered from the version alone when the client already has it,
+        // If-None-Match wins over the second granular If-Modified-Since when both are sent
+        Optional<Instant> version = authorService.findVersion(id);
+        String etag = version.map(v -> ETags.of("author", id, v)).orElse(null);
+        if (version.isPresent() && webRequest.checkNotModified(etag, version.get().toEpochMilli())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .cacheControl(CacheControl.maxAge(60, TimeUnit.SECONDS).cachePublic())
+                    .build();
+        }
 
         AuthorData author = authorService.findById(id);
 
-        return ResponseEntity.ok()
-                .cacheControl(CacheControl.maxAge(60, TimeUnit.SECONDS).cachePublic())
-                .body(author);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.maxAge(60, TimeUnit.SECONDS).cachePublic());
+        version.ifPresent(response::lastModified);
+
+        return response.body(author);
     }
 
     
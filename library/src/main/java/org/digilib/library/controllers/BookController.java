@@ -10,35 +10,62 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.digilib.library.configs.PaginationProperties;
 import org.digilib.library.errors.exceptions.InvalidRequestParamException;
 import org.digilib.library.errors.exceptions.ResourceNotFoundException;
 import org.digilib.library.models.Book;
+import org.digilib.library.models.dto.CollectionVersion;
+import org.digilib.library.models.dto.CursorPage;
+import org.digilib.library.models.dto.SlicePage;
+import org.digilib.library.models.dto.book.BookAvailabilityData;
 import org.digilib.library.models.dto.book.BookCreateView;
 import org.digilib.library.models.dto.book.BookData;
+import org.digilib.library.models.dto.book.BookExportData;
+import org.digilib.library.models.dto.book.BookImportResult;
+import org.digilib.library.models.dto.book.BookSearchCursor;
 import org.digilib.library.models.dto.book.BookUpdateView;
 import org.digilib.library.models.dto.book.LibraryBookData;
 import org.digilib.library.openapi.ErrorResponse;
 import org.digilib.library.services.BookCopyService;
+import org.digilib.library.services.BookExportService;
+import org.digilib.library.services.BookImportService;
 import org.digilib.library.services.BookService;
+import org.digilib.library.utils.Cursors;
+import org.digilib.library.utils.ETags;
 import org.digilib.library.validators.isbn.IsbnValidator;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
-import static org.digilib.library.LibraryApplication.PAGE_SIZE;
+import static org.digilib.library.utils.Cursors.CURSOR_PARAM;
 
 @RestController
 @RequestMapping("/api")
@@ -49,6 +76,10 @@ public class BookController {
 
     private final BookService bookService;
     private final BookCopyService bookCopyService;
+    private final BookExportService bookExportService;
+    private final BookImportService bookImportService;
+
+    private final PaginationProperties pagination;
 
     
 
@@ -66,6 +97,10 @@ public class BookController {
                             schema = @Schema(implementation = Page.class)
                     )
             ),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "Books unchanged since the version in If-None-Match"
+            ),
             @ApiResponse(
                     responseCode = "400",
                     description = "Invalid page or sorts",
@@ -127,22 +162,177 @@ public class BookController {
                             schema = @Schema(example = "title")
                     )
             )
-            @RequestParam(name = "sorts") String[] sorts) {
+            @RequestParam(name = "sorts") String[] sorts,
+            @Parameter(description = "Page size, defaults to 15 and is capped per endpoint", example = "15")
+            @RequestParam(name = "size", required = false) Integer size,
+            @Parameter(
+                    description = "Fields to return, comma separated, every field when omitted. The id is always returned",
+                    example = "isbn,title,imageUrl"
+            )
+            @RequestParam(name = "fields", required = false) Set<String> fields,
+            WebRequest webRequest) {
 
         InvalidRequestParamException.notPositivePage(pageNumber);
         InvalidRequestParamException.notValidSorts(sorts, Book.class);
 
+        CollectionVersion version = bookService.findCollectionVersion();
+        String etag = ETags.of("books", version);
+        if (webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .cacheControl(CacheControl.maxAge(60, TimeUnit.SECONDS).cachePublic())
+                    .build();
+        }
+
         Pageable pageable = PageRequest.of(
                 pageNumber - 1,
-                PAGE_SIZE,
+                pagination.sizeFor("books", size),
+                Sort.by(sorts)
+        );
+
+        Page<BookData> bookPage = bookService.findAll(pageable, Objects.requireNonNullElse(fields, Set.of()), version.count());
+
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.maxAge(60, TimeUnit.SECONDS).cachePublic())
+                .body(bookPage);
+    }
+
+    @Operation(
+            summary = "Get all books by cursor",
+            description = "Returns a window of books after the given cursor using keyset paging, so deep pages cost the same as the first one. " +
+                    "Pass an empty cursor for the first window and the returned nextCursor for the following ones."
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Window of results with the cursor of the next one",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = CursorPage.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid cursor or sorts",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponse.class),
+                            examples = @ExampleObject(
+                                    name = "InvalidCursor",
+                                    value = """
+                                            {
+                                              "code": 2,
+                                              "status": 400,
+                                              "error": "BAD_REQUEST",
+                                              "message": "The supplied cursor is not valid",
+                                              "path": "/api/books",
+                                              "timestamp": "2025-12-02T21:44:08.430Z"
+                                            }
+                                            """
+                            )
+                    )
+            )
+    })
+    @GetMapping(value = "/books", params = CURSOR_PARAM)
+    public ResponseEntity<CursorPage<BookData>> getAllBooksByCursor(
+            @Parameter(description = "Continuation token of the previous window, empty for the first one")
+            @RequestParam(name = CURSOR_PARAM) String cursor,
+            @Parameter(
+                    description = """
+                            Sorting fields (property names), the id is always appended as a tie breaker.
+                            Multiple values are passed by repeating the parameter, e.g.:
+                            ?cursor=&sorts=title
+                            """,
+                    array = @ArraySchema(schema = @Schema(example = "title"))
+            )
+            @RequestParam(name = "sorts") String[] sorts,
+            @Parameter(description = "Page size, defaults to 15 and is capped per endpoint", example = "15")
+            @RequestParam(name = "size", required = false) Integer size,
+            @Parameter(description = "Not supported with cursor paging, windows are always returned with every field")
+            @RequestParam(name = "fields", required = false) Set<String> fields) {
+
+        InvalidRequestParamException.notWithCursor(fields);
+        InvalidRequestParamException.notKeysetSortable(sorts, Book.class);
+
+        ScrollPosition position = Cursors.decode(cursor, Book.class, sorts);
+
+        Window<Book> books = bookService.findAll(position, Sort.by(sorts), Limit.of(pagination.sizeFor("books", size)));
+
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(60, TimeUnit.SECONDS).cachePublic())
+                .body(CursorPage.of(books.map(BookData::wrapBook)));
+    }
+
+    @Operation(
+            summary = "Get all books without totals",
+            description = "Returns a page of books together with an estimated total taken from Postgres table statistics. " +
+                    "Skips the total count query; hasNext is resolved by fetching one extra row. " +
+                    "estimatedTotal is omitted while no statistics are available."
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Slice of results without totals",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = SlicePage.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid page or sorts",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponse.class),
+                            examples = @ExampleObject(
+                                    name = "InvalidPageOrSorts",
+                                    value = """
+                                            {
+                                              "code": 2,
+                                              "status": 400,
+                                              "error": "BAD_REQUEST",
+                                              "message": "The supplied value for page is not valid",
+                                              "path": "/api/books",
+                                              "timestamp": "2025-12-02T21:44:08.430Z"
+                                            }
+                                            """
+                            )
+                    )
+            )
+    })
+    @GetMapping(value = "/books", params = {"count=false", "!" + CURSOR_PARAM})
+    public ResponseEntity<SlicePage<BookData>> getAllBooksSlice(
+            @Parameter(description = "Page number starting from 1", example = "1")
+            @RequestParam(name = "page") int pageNumber,
+            @Parameter(
+                    description = """
+                            Sorting fields (property names).
+                            Multiple values are passed by repeating the parameter, e.g.:
+                            ?page=1&count=false&sorts=title
+                            """,
+                    array = @ArraySchema(schema = @Schema(example = "title"))
+            )
+            @RequestParam(name = "sorts") String[] sorts,
+            @Parameter(description = "Page size, defaults to 15 and is capped per endpoint", example = "15")
+            @RequestParam(name = "size", required = false) Integer size,
+            @Parameter(
+                    description = "Fields to return, comma separated, every field when omitted. The id is always returned",
+                    example = "isbn,title,imageUrl"
+            )
+            @RequestParam(name = "fields", required = false) Set<String> fields) {
+
+        InvalidRequestParamException.notPositivePage(pageNumber);
+        InvalidRequestParamException.notValidSorts(sorts, Book.class);
+
+        var pageable = PageRequest.of(
+                pageNumber - 1,
+                pagination.sizeFor("books", size),
                 Sort.by(sorts)
         );
 
-        Page<Book> bookPage = bookService.findAll(pageable);
+        Slice<BookData> books = bookService.findSlice(pageable, Objects.requireNonNullElse(fields, Set.of()));
 
         return ResponseEntity.ok()
                 .cacheControl(CacheControl.maxAge(60, TimeUnit.SECONDS).cachePublic())
-                .body(bookPage.map(BookData::wrapBook));
+                .body(SlicePage.of(books, bookService.estimateCount()));
     }
 
     
@@ -283,6 +473,104 @@ public class BookController {
                 .body(BookData.wrapBook(saved));
     }
 
+
+    
+
+    @Operation(
+            summary = "Import books in bulk",
+            description = "Imports a JSON array or newline delimited JSON of book creation payloads. " +
+                    "Invalid rows are skipped and reported, the remaining rows are stored.",
+            security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Import finished, rejected rows are listed in failures",
+                    content = @Content(schema = @Schema(implementation = BookImportResult.class))
+            ),
+            @ApiResponse(
+                    responseCode = "403",
+                    description = "Forbidden – missing ADMIN or LIBRARIAN role",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponse.class),
+                            examples = @ExampleObject(
+                                    name = "Forbidden",
+                                    value = """
+                                            {
+                                              "code": 2,
+                                              "status": 403,
+                                              "error": "FORBIDDEN",
+                                              "message": "Access is denied",
+                                              "path": "/api/books/import",
+                                              "details": {},
+                                              "timestamp": "2025-12-02T21:44:08.434Z"
+                                            }
+                                            """
+                            )
+                    )
+            )
+    })
+    @PreAuthorize("hasAnyRole('ADMIN', 'LIBRARIAN')")
+    @PostMapping(
+            value = "/books/import",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE}
+    )
+    public ResponseEntity<BookImportResult> importBooks(InputStream body) throws IOException {
+        return ResponseEntity.ok(bookImportService.importFrom(body, BookImportService.Format.JSON));
+    }
+
+    
+
+    @Operation(
+            summary = "Import books in bulk from a file",
+            description = "Imports an uploaded .csv, .json or .ndjson file. CSV files need a header row with the " +
+                    "book creation field names and author ids separated by ';'. " +
+                    "Invalid rows are skipped and reported, the remaining rows are stored.",
+            security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Import finished, rejected rows are listed in failures",
+                    content = @Content(schema = @Schema(implementation = BookImportResult.class))
+            ),
+            @ApiResponse(
+                    responseCode = "403",
+                    description = "Forbidden – missing ADMIN or LIBRARIAN role",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponse.class),
+                            examples = @ExampleObject(
+                                    name = "Forbidden",
+                                    value = """
+                                            {
+                                              "code": 2,
+                                              "status": 403,
+                                              "error": "FORBIDDEN",
+                                              "message": "Access is denied",
+                                              "path": "/api/books/import",
+                                              "details": {},
+                                              "timestamp": "2025-12-02T21:44:08.434Z"
+                                            }
+                                            """
+                            )
+                    )
+            )
+    })
+    @PreAuthorize("hasAnyRole('ADMIN', 'LIBRARIAN')")
+    @PostMapping(value = "/books/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<BookImportResult> importBooksFile(
+            @Parameter(description = "Book feed as .csv, .json or .ndjson")
+            @RequestPart("file") MultipartFile file) throws IOException {
+
+        String name = Optional.ofNullable(file.getOriginalFilename()).orElse("").toLowerCase();
+        boolean csv = name.endsWith(".csv") || "text/csv".equalsIgnoreCase(file.getContentType());
+        BookImportService.Format format = csv ? BookImportService.Format.CSV : BookImportService.Format.JSON;
+
+        try (InputStream in = file.getInputStream()) {
+            return ResponseEntity.ok(bookImportService.importFrom(in, format));
+        }
+    }
+
     
 
     @Operation(
@@ -353,8 +641,190 @@ public class BookController {
                 .body(copies);
     }
 
+    @Operation(
+            summary = "Get the availability of a book",
+            description = "Returns how many copies of the book are available, reserved, checked out or lost, " +
+                    "in total and per library. Read from counters kept up to date on every copy change, " +
+                    "so it stays cheap for books with many copies."
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Copy counts",
+                    content = @Content(
+                            schema = @Schema(implementation = BookAvailabilityData.class),
+                            examples = @ExampleObject(
+                                    name = "Availability",
+                                    value = """
+                                            {
+                                              "isbn": "9780132350884",
+                                              "available": 3,
+                                              "reserved": 1,
+                                              "checkedOut": 4,
+                                              "lost": 0,
+                                              "libraries": [
+                                                {
+                                                  "libraryId": 1,
+                                                  "libraryName": "Central Library",
+                                                  "available": 2,
+                                                  "reserved": 1,
+                                                  "checkedOut": 3,
+                                                  "lost": 0
+                                                },
+                                                {
+                                                  "libraryId": 4,
+                                                  "libraryName": "Riverside Branch",
+                                                  "available": 1,
+                                                  "reserved": 0,
+                                                  "checkedOut": 1,
+                                                  "lost": 0
+                                                }
+                                              ]
+                                            }
+                                            """
+                            )
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid ISBN",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Book not found",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+            )
+    })
+    @GetMapping("/books/{isbn}/availability")
+    public ResponseEntity<BookAvailabilityData> getBookAvailability(
+            @Parameter(description = "ISBN-13 of the book", example = "9780132350884")
+            @PathVariable String isbn) {
+
+        InvalidRequestParamException.throwIf(isbn, "isbn", s -> !IsbnValidator.isValidIsbn13(s));
+
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(10, TimeUnit.SECONDS).cachePublic())
+                .body(bookCopyService.findAvailability(isbn));
+    }
+
     
 
+    @Operation(
+            summary = "Search books",
+            description = "Full-text search over titles, summaries and author names, most relevant first. " +
+                    "Supports web search syntax: quoted phrases, 'or' and '-' to exclude a term. " +
+                    "Results are returned in windows, pass the returned cursor to get the next one."
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Window of matching books with the cursor of the next one",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = CursorPage.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Blank query or invalid cursor",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponse.class),
+                            examples = @ExampleObject(
+                                    name = "BlankQuery",
+                                    value = """
+                                            {
+                                              "code": 2,
+                                              "status": 400,
+                                              "error": "BAD_REQUEST",
+                                              "message": "The supplied value for q is not valid",
+                                              "path": "/api/books/search",
+                                              "details": {},
+                                              "timestamp": "2025-12-02T21:44:08.430Z"
+                                            }
+                                            """
+                            )
+                    )
+            )
+    })
+    @GetMapping("/books/search")
+    public ResponseEntity<CursorPage<BookData>> searchBooks(
+            @Parameter(description = "Search terms", example = "clean architecture")
+            @RequestParam(name = "q") String query,
+            @Parameter(description = "Continuation token of the previous window, empty for the first one")
+            @RequestParam(name = CURSOR_PARAM, required = false) String cursor,
+            @Parameter(description = "Page size, defaults to 15 and is capped per endpoint", example = "15")
+            @RequestParam(name = "size", required = false) Integer size,
+            @Parameter(description = "Not supported with cursor paging, windows are always returned with every field")
+            @RequestParam(name = "fields", required = false) Set<String> fields) {
+
+        InvalidRequestParamException.notWithCursor(fields);
+        InvalidRequestParamException.throwIf(query, "q", String::isBlank);
+
+        ScrollPosition position = Cursors.decode(cursor, BookSearchCursor.class);
+
+        Window<Book> books = bookService.search(query, position, Limit.of(pagination.sizeFor("search", size)));
+
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(60, TimeUnit.SECONDS).cachePublic())
+                .body(CursorPage.of(books.map(BookData::wrapBook)));
+    }
+
+    
+
+    @Operation(
+            summary = "Export the book catalog",
+            description = "Streams every book as newline delimited JSON, one book per line, ordered by isbn. " +
+                    "The response is written while the catalog is read, so it is never held in memory as a whole.",
+            security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Catalog stream",
+                    content = @Content(
+                            mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                            schema = @Schema(implementation = BookExportData.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "403",
+                    description = "Forbidden – missing ADMIN or LIBRARIAN role",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponse.class),
+                            examples = @ExampleObject(
+                                    name = "Forbidden",
+                                    value = """
+                                            {
+                                              "code": 2,
+                                              "status": 403,
+                                              "error": "FORBIDDEN",
+                                              "message": "Access is denied",
+                                              "path": "/api/books/export",
+                                              "details": {},
+                                              "timestamp": "2025-12-02T21:44:08.434Z"
+                                            }
+                                            """
+                            )
+                    )
+            )
+    })
+    @PreAuthorize("hasAnyRole('ADMIN', 'LIBRARIAN')")
+    @GetMapping(value = "/books/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void exportBooks(
+            @Parameter(description = "Include the genre and author ids of each book")
+            @RequestParam(name = "relations", defaultValue = "false") boolean relations,
+            HttpServletResponse response) throws IOException {
+
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+
+        long exported = bookExportService.exportTo(response.getOutputStream(), relations);
+        log.info("Exported {} books", exported);
+    }
+
+
+
     @Operation(
             summary = "Get a single book by ISBN",
             description = "Retrieves book details by its ISBN-13."
@@ -365,6 +835,10 @@ public class BookController {
                     description = "Book found",
                     content = @Content(schema = @Schema(implementation = BookData.class))
             ),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "Book unchanged since the version in If-None-Match or If-Modified-Since"
+            ),
             @ApiResponse(
                     responseCode = "400",
                     description = "Invalid ISBN",
@@ -411,18 +885,32 @@ public class BookController {
     @GetMapping("/books/{isbn}")
     public ResponseEntity<BookData> getBook(
             @Parameter(description = "ISBN-13 of the book", example = "9780132350884")
-            @PathVariable String isbn) {
+            @PathVariable String isbn,
+            WebRequest webRequest) {
 
         InvalidRequestParamException.throwIf(isbn, "isbn", s -> !IsbnValidator.isValidIsbn13(s));
 
         String normalised = isbn.replaceAll("[-\\s]", "");
 
-        Optional<Book> book = bookService.findByIsbn(normalised);
+        // answered from the version alone when the client already has it,
+        // If-None-Match wins over the second granular If-Modified-Since when both are sent
+        Optional<Instant> version = bookService.findVersion(normalised);
+        String etag = version.map(v -> ETags.of("book", normalised, v)).orElse(null);
+        if (version.isPresent() && webRequest.checkNotModified(etag, version.get().toEpochMilli())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .cacheControl(CacheControl.maxAge(60, TimeUnit.SECONDS).cachePublic())
+                    .build();
+        }
 
-        return book.map(bk -> ResponseEntity.ok()
-                        .cacheControl(CacheControl.maxAge(60, TimeUnit.SECONDS).cachePublic())
-                        .body(BookData.wrapBook(bk)))
+        Book book = bookService.findByIsbn(normalised)
                 .orElseThrow(() -> ResourceNotFoundException.of(Book.class, isbn));
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.maxAge(60, TimeUnit.SECONDS).cachePublic());
+        version.ifPresent(response::lastModified);
+
+        return response.body(BookData.wrapBook(book));
     }
 
     
@@ -0,0 +1,110 @@
+package org.digilib.library.controllers;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.ExampleObject;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.digilib.library.errors.exceptions.InvalidRequestParamException;
+import org.digilib.library.models.User;
+import org.digilib.library.models.dto.book.CopyStatusData;
+import org.digilib.library.openapi.ErrorResponse;
+import org.digilib.library.services.CopyEventBroadcaster;
+import org.digilib.library.validators.isbn.IsbnValidator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@RestController
+@RequestMapping("/api")
+@RequiredArgsConstructor
+@Tag(name = "Copy events", description = "Live status changes of book copies")
+public class CopyEventController {
+
+    private final CopyEventBroadcaster copyEventBroadcaster;
+
+    @Value("${copy-events.max-topics}")
+    private int maxTopics;
+
+    @Operation(
+            summary = "Stream copy status changes",
+            description = """
+                    Opens a server-sent event stream of the status changes of the copies of the given books \
+                    and of the copies held by the given libraries, as they are committed.
+                    Sends `copy-status` events when a copy is added or changes status \
+                    and `copy-deleted` events when a copy is removed, plus periodic heartbeat comments.
+                    Clients that fall too far behind are disconnected and should reconnect.
+                    Each user can keep a limited number of streams open at once.
+                    """,
+            security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Event stream",
+                    content = @Content(
+                            mediaType = MediaType.TEXT_EVENT_STREAM_VALUE,
+                            schema = @Schema(implementation = CopyStatusData.class),
+                            examples = @ExampleObject(
+                                    name = "CopyStatus",
+                                    value = """
+                                            event:copy-status
+                                            id:14:1764714005000
+                                            data:{"copyId":14,"isbn":"9780132350884","libraryId":1,"barcode":"CEN-0014","status":"AVAILABLE","changedAt":"2025-12-02T22:20:05Z"}
+                                            """
+                            )
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "No book or library to follow, too many of them or an invalid ISBN",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "401",
+                    description = "Not authenticated",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "409",
+                    description = "Too many open event streams, in total or for the user",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+            )
+    })
+    @GetMapping(value = "/copies/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamCopyEvents(
+            @AuthenticationPrincipal User currentUser,
+            @Parameter(description = "ISBN-13 of a book to follow, repeatable", example = "9780132350884")
+            @RequestParam(name = "isbn", required = false) List<String> isbns,
+            @Parameter(description = "Id of a library to follow, repeatable", example = "1")
+            @RequestParam(name = "libraryId", required = false) List<Long> libraryIds) {
+
+        Set<String> normalized = Objects.requireNonNullElse(isbns, List.<String>of()).stream()
+                .map(isbn -> isbn.replaceAll("[-\\s]", ""))
+                .collect(Collectors.toSet());
+        normalized.forEach(isbn ->
+                InvalidRequestParamException.throwIf(isbn, "isbn", s -> !IsbnValidator.isValidIsbn13(s)));
+
+        Set<Long> libraries = Set.copyOf(Objects.requireNonNullElse(libraryIds, List.of()));
+
+        int topics = normalized.size() + libraries.size();
+        InvalidRequestParamException.throwIf(topics, "isbn", value -> value == 0 || value > maxTopics);
+
+        return copyEventBroadcaster.subscribe(currentUser.getId(), normalized, libraries);
+    }
+}
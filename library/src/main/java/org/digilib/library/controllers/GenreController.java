@@ -13,10 +13,13 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.digilib.library.configs.PaginationProperties;
 import org.digilib.library.errors.exceptions.InvalidRequestParamException;
 import org.digilib.library.models.Author;
 import org.digilib.library.models.Book;
 import org.digilib.library.models.Genre;
+import org.digilib.library.models.dto.CursorPage;
+import org.digilib.library.models.dto.SlicePage;
 import org.digilib.library.models.dto.author.AuthorData;
 import org.digilib.library.models.dto.book.BookData;
 import org.digilib.library.models.dto.genre.GenreCreateView;
@@ -25,9 +28,14 @@ import org.digilib.library.models.dto.genre.GenreUpdateView;
 import org.digilib.library.openapi.ErrorResponse;
 import org.digilib.library.services.AuthorService;
 import org.digilib.library.services.GenreService;
+import org.digilib.library.utils.Cursors;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -35,9 +43,11 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
-import static org.digilib.library.LibraryApplication.PAGE_SIZE;
+import static org.digilib.library.utils.Cursors.CURSOR_PARAM;
 
 @RestController
 @RequestMapping("/api")
@@ -49,6 +59,8 @@ public class GenreController {
     private final GenreService genreService;
     private final AuthorService authorService;
 
+    private final PaginationProperties pagination;
+
     @Operation(
             summary = "Get all genres",
             description = "Returns a list of all genres."
@@ -218,20 +230,168 @@ public class GenreController {
                             """,
                     array = @ArraySchema(schema = @Schema(example = "title"))
             )
-            @RequestParam(name = "sorts") String[] sorts) {
+            @RequestParam(name = "sorts") String[] sorts,
+            @Parameter(description = "Page size, defaults to 15 and is capped per endpoint", example = "15")
+            @RequestParam(name = "size", required = false) Integer size,
+            @Parameter(
+                    description = "Fields to return, comma separated, every field when omitted. The id is always returned",
+                    example = "isbn,title,imageUrl"
+            )
+            @RequestParam(name = "fields", required = false) Set<String> fields) {
+
+        InvalidRequestParamException.notPositivePage(pageNumber);
+        InvalidRequestParamException.notValidSorts(sorts, Book.class);
+
+        var pageable = PageRequest.of(
+                pageNumber - 1,
+                pagination.sizeFor("genre-books", size),
+                Sort.by(sorts)
+        );
+
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(60, TimeUnit.SECONDS).cachePublic())
+                .body(genreService.findBooksByGenreId(id, pageable, Objects.requireNonNullElse(fields, Set.of())));
+    }
+
+    @Operation(
+            summary = "Get books by genre by cursor",
+            description = "Returns a window of books of the given genre after the given cursor using keyset paging. " +
+                    "Pass an empty cursor for the first window and the returned nextCursor for the following ones."
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Window of results with the cursor of the next one",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = CursorPage.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid cursor or sorts",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponse.class),
+                            examples = @ExampleObject(
+                                    name = "InvalidCursor",
+                                    value = """
+                                            {
+                                              "code": 2,
+                                              "status": 400,
+                                              "error": "BAD_REQUEST",
+                                              "message": "The supplied cursor is not valid",
+                                              "path": "/api/genres/1/books",
+                                              "timestamp": "2025-12-02T21:44:08.430Z"
+                                            }
+                                            """
+                            )
+                    )
+            )
+    })
+    @GetMapping(value = "/genres/{id}/books", params = CURSOR_PARAM)
+    public ResponseEntity<CursorPage<BookData>> getBooksByGenreIdByCursor(
+            @Parameter(description = "ID of the genre", example = "1")
+            @PathVariable long id,
+            @Parameter(description = "Continuation token of the previous window, empty for the first one")
+            @RequestParam(name = CURSOR_PARAM) String cursor,
+            @Parameter(
+                    description = """
+                            Sorting fields (property names), the id is always appended as a tie breaker.
+                            Multiple values are passed by repeating the parameter, e.g.:
+                            ?cursor=&sorts=title
+                            """,
+                    array = @ArraySchema(schema = @Schema(example = "title"))
+            )
+            @RequestParam(name = "sorts") String[] sorts,
+            @Parameter(description = "Page size, defaults to 15 and is capped per endpoint", example = "15")
+            @RequestParam(name = "size", required = false) Integer size,
+            @Parameter(description = "Not supported with cursor paging, windows are always returned with every field")
+            @RequestParam(name = "fields", required = false) Set<String> fields) {
+
+        InvalidRequestParamException.notWithCursor(fields);
+        InvalidRequestParamException.notKeysetSortable(sorts, Book.class);
+
+        ScrollPosition position = Cursors.decode(cursor, Book.class, sorts);
+
+        Window<BookData> books = genreService.findBooksByGenreId(id, position, Sort.by(sorts), Limit.of(pagination.sizeFor("genre-books", size)));
+
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(60, TimeUnit.SECONDS).cachePublic())
+                .body(CursorPage.of(books));
+    }
+
+    @Operation(
+            summary = "Get books by genre without totals",
+            description = "Returns a page of books of the given genre. " +
+                    "Skips the total count query; hasNext is resolved by fetching one extra row."
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Slice of results without totals",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = SlicePage.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid page or sorts",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponse.class),
+                            examples = @ExampleObject(
+                                    name = "InvalidPageOrSorts",
+                                    value = """
+                                            {
+                                              "code": 2,
+                                              "status": 400,
+                                              "error": "BAD_REQUEST",
+                                              "message": "The supplied value for page is not valid",
+                                              "path": "/api/genres/1/books",
+                                              "timestamp": "2025-12-02T21:44:08.430Z"
+                                            }
+                                            """
+                            )
+                    )
+            )
+    })
+    @GetMapping(value = "/genres/{id}/books", params = {"count=false", "!" + CURSOR_PARAM})
+    public ResponseEntity<SlicePage<BookData>> getBooksByGenreIdSlice(
+            @Parameter(description = "ID of the genre", example = "1")
+            @PathVariable long id,
+            @Parameter(description = "Page number starting from 1", example = "1")
+            @RequestParam(name = "page") int pageNumber,
+            @Parameter(
+                    description = """
+                            Sorting fields (property names).
+                            Multiple values are passed by repeating the parameter, e.g.:
+                            ?page=1&count=false&sorts=title
+                            """,
+                    array = @ArraySchema(schema = @Schema(example = "title"))
+            )
+            @RequestParam(name = "sorts") String[] sorts,
+            @Parameter(description = "Page size, defaults to 15 and is capped per endpoint", example = "15")
+            @RequestParam(name = "size", required = false) Integer size,
+            @Parameter(
+                    description = "Fields to return, comma separated, every field when omitted. The id is always returned",
+                    example = "isbn,title,imageUrl"
+            )
+            @RequestParam(name = "fields", required = false) Set<String> fields) {
 
         InvalidRequestParamException.notPositivePage(pageNumber);
         InvalidRequestParamException.notValidSorts(sorts, Book.class);
 
         var pageable = PageRequest.of(
                 pageNumber - 1,
-                PAGE_SIZE,
+                pagination.sizeFor("genre-books", size),
                 Sort.by(sorts)
         );
 
+        Slice<BookData> books = genreService.findBooksSliceByGenreId(id, pageable, Objects.requireNonNullElse(fields, Set.of()));
+
         return ResponseEntity.ok()
                 .cacheControl(CacheControl.maxAge(60, TimeUnit.SECONDS).cachePublic())
-                .body(genreService.findBooksByGenreId(id, pageable));
+                .body(SlicePage.of(books));
     }
 
     
@@ -321,19 +481,93 @@ public class GenreController {
                             """,
                     array = @ArraySchema(schema = @Schema(example = "lastName"))
             )
-            @RequestParam(name = "sorts") String[] sorts) {
+            @RequestParam(name = "sorts") String[] sorts,
+            @Parameter(description = "Page size, defaults to 15 and is capped per endpoint", example = "15")
+            @RequestParam(name = "size", required = false) Integer size,
+            @Parameter(
+                    description = "Fields to return, comma separated, every field when omitted. The id is always returned",
+                    example = "id,firstName,lastName"
+            )
+            @RequestParam(name = "fields", required = false) Set<String> fields) {
 
         InvalidRequestParamException.notPositivePage(pageNumber);
         InvalidRequestParamException.notValidSorts(sorts, Author.class);
 
         var pageable = PageRequest.of(
                 pageNumber - 1,
-                PAGE_SIZE,
+                pagination.sizeFor("genre-authors", size),
                 Sort.by(sorts)
         );
         return ResponseEntity.ok()
                 .cacheControl(CacheControl.maxAge(60, TimeUnit.SECONDS).cachePublic())
-                .body(genreService.findAuthorsByGenre(id, pageable));
+                .body(genreService.findAuthorsByGenre(id, pageable, Objects.requireNonNullElse(fields, Set.of())));
+    }
+
+    @Operation(
+            summary = "Get authors by genre by cursor",
+            description = "Returns a window of authors of the given genre after the given cursor using keyset paging. " +
+                    "Pass an empty cursor for the first window and the returned nextCursor for the following ones."
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Window of results with the cursor of the next one",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = CursorPage.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid cursor or sorts",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponse.class),
+                            examples = @ExampleObject(
+                                    name = "InvalidCursor",
+                                    value = """
+                                            {
+                                              "code": 2,
+                                              "status": 400,
+                                              "error": "BAD_REQUEST",
+                                              "message": "The supplied cursor is not valid",
+                                              "path": "/api/genres/1/authors",
+                                              "timestamp": "2025-12-02T21:44:08.430Z"
+                                            }
+                                            """
+                            )
+                    )
+            )
+    })
+    @GetMapping(value = "/genres/{id}/authors", params = CURSOR_PARAM)
+    public ResponseEntity<CursorPage<AuthorData>> getAuthorsByGenreIdByCursor(
+            @Parameter(description = "ID of the genre", example = "1")
+            @PathVariable long id,
+            @Parameter(description = "Continuation token of the previous window, empty for the first one")
+            @RequestParam(name = CURSOR_PARAM) String cursor,
+            @Parameter(
+                    description = """
+                            Sorting fields (property names), the id is always appended as a tie breaker.
+                            Multiple values are passed by repeating the parameter, e.g.:
+                            ?cursor=&sorts=lastName
+                            """,
+                    array = @ArraySchema(schema = @Schema(example = "lastName"))
+            )
+            @RequestParam(name = "sorts") String[] sorts,
+            @Parameter(description = "Page size, defaults to 15 and is capped per endpoint", example = "15")
+            @RequestParam(name = "size", required = false) Integer size,
+            @Parameter(description = "Not supported with cursor paging, windows are always returned with every field")
+            @RequestParam(name = "fields", required = false) Set<String> fields) {
+
+        InvalidRequestParamException.notWithCursor(fields);
+        InvalidRequestParamException.notKeysetSortable(sorts, Author.class);
+
+        ScrollPosition position = Cursors.decode(cursor, Author.class, sorts);
+
+        Window<AuthorData> authors = genreService.findAuthorsByGenre(id, position, Sort.by(sorts), Limit.of(pagination.sizeFor("genre-authors", size)));
+
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(60, TimeUnit.SECONDS).cachePublic())
+                .body(CursorPage.of(authors));
     }
 
     @Operation(
@@ -388,7 +622,7 @@ public class GenreController {
             @Parameter(description = "ID of the author", example = "1")
             @PathVariable long authorId) {
 
-        Genre genre = genreService.findById(genreId);
+        Genre genre = genreService.referenceTo(genreService.findGenreDataById(genreId));
         AuthorData authorData = authorService.findAuthorByGenre(authorId, genre);
 
         return ResponseEntity.ok()
@@ -484,21 +718,28 @@ public class GenreController {
                             """,
                     array = @ArraySchema(schema = @Schema(example = "title"))
             )
-            @RequestParam(name = "sorts") String[] sorts) {
+            @RequestParam(name = "sorts") String[] sorts,
+            @Parameter(description = "Page size, defaults to 15 and is capped per endpoint", example = "15")
+            @RequestParam(name = "size", required = false) Integer size,
+            @Parameter(
+                    description = "Fields to return, comma separated, every field when omitted. The id is always returned",
+                    example = "isbn,title,imageUrl"
+            )
+            @RequestParam(name = "fields", required = false) Set<String> fields) {
 
         InvalidRequestParamException.notPositivePage(pageNumber);
         InvalidRequestParamException.notValidSorts(sorts, Book.class);
 
-        Genre genre = genreService.findById(genreId);
+        Genre genre = genreService.referenceTo(genreService.findGenreDataById(genreId));
         AuthorData authorData = authorService.findAuthorByGenre(authorId, genre);
 
         var pageable = PageRequest.of(
                 pageNumber - 1,
-                PAGE_SIZE,
+                pagination.sizeFor("author-books", size),
                 Sort.by(sorts)
         );
 
-        Page<BookData> bookPage = authorService.findBooksByAuthor(authorData.id(), pageable);
+        Page<BookData> bookPage = authorService.findBooksByAuthor(authorData.id(), pageable, Objects.requireNonNullElse(fields, Set.of()));
 
         return ResponseEntity.ok()
                 .cacheControl(CacheControl.maxAge(60, TimeUnit.SECONDS).cachePublic())
@@ -12,9 +12,12 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.digilib.library.configs.PaginationProperties;
 import org.digilib.library.errors.exceptions.InvalidRequestParamException;
 import org.digilib.library.models.BookCopy;
 import org.digilib.library.models.Library;
+import org.digilib.library.models.dto.CursorPage;
+import org.digilib.library.models.dto.SlicePage;
 import org.digilib.library.models.dto.book.BookCopyCreateView;
 import org.digilib.library.models.dto.book.BookCopyData;
 import org.digilib.library.models.dto.book.BookCopyUpdateView;
@@ -22,18 +25,25 @@ import org.digilib.library.models.dto.library.LibraryCreateView;
 import org.digilib.library.models.dto.library.LibraryData;
 import org.digilib.library.openapi.ErrorResponse;
 import org.digilib.library.services.LibraryService;
+import org.digilib.library.utils.Cursors;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
-import static org.digilib.library.LibraryApplication.PAGE_SIZE;
+import static org.digilib.library.utils.Cursors.CURSOR_PARAM;
 
 @RestController
 @RequestMapping("/api")
@@ -43,6 +53,8 @@ public class LibraryController {
 
     private final LibraryService libraryService;
 
+    private final PaginationProperties pagination;
+
     @Operation(
             summary = "Get all libraries",
             description = "Returns a paginated list of libraries."
@@ -109,20 +121,92 @@ public class LibraryController {
                             """,
                     array = @ArraySchema(schema = @Schema(example = "name"))
             )
-            @RequestParam(name = "sorts") String[] sorts) {
+            @RequestParam(name = "sorts") String[] sorts,
+            @Parameter(description = "Page size, defaults to 15 and is capped per endpoint", example = "15")
+            @RequestParam(name = "size", required = false) Integer size,
+            @Parameter(
+                    description = "Fields to return, comma separated, every field when omitted. The id is always returned",
+                    example = "id,name"
+            )
+            @RequestParam(name = "fields", required = false) Set<String> fields) {
 
         InvalidRequestParamException.notPositivePage(pageNumber);
         InvalidRequestParamException.notValidSorts(sorts, Library.class);
 
         var pageable = PageRequest.of(
                 pageNumber - 1,
-                PAGE_SIZE,
+                pagination.sizeFor("libraries", size),
                 Sort.by(sorts)
         );
 
         return ResponseEntity.ok()
                 .cacheControl(CacheControl.maxAge(60, TimeUnit.SECONDS).cachePublic())
-                .body(libraryService.findAll(pageable));
+                .body(libraryService.findAll(pageable, Objects.requireNonNullElse(fields, Set.of())));
+    }
+
+    @Operation(
+            summary = "Get all libraries by cursor",
+            description = "Returns a window of libraries after the given cursor using keyset paging. " +
+                    "Pass an empty cursor for the first window and the returned nextCursor for the following ones."
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Window of results with the cursor of the next one",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = CursorPage.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid cursor or sorts",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponse.class),
+                            examples = @ExampleObject(
+                                    name = "InvalidCursor",
+                                    value = """
+                                            {
+                                              "code": 2,
+                                              "status": 400,
+                                              "error": "BAD_REQUEST",
+                                              "message": "The supplied cursor is not valid",
+                                              "path": "/api/libraries",
+                                              "timestamp": "2025-12-02T21:44:08.430Z"
+                                            }
+                                            """
+                            )
+                    )
+            )
+    })
+    @GetMapping(value = "/libraries", params = CURSOR_PARAM)
+    public ResponseEntity<CursorPage<LibraryData>> getAllLibrariesByCursor(
+            @Parameter(description = "Continuation token of the previous window, empty for the first one")
+            @RequestParam(name = CURSOR_PARAM) String cursor,
+            @Parameter(
+                    description = """
+                            Sorting fields (property names), the id is always appended as a tie breaker.
+                            Multiple values are passed by repeating the parameter, e.g.:
+                            ?cursor=&sorts=name
+                            """,
+                    array = @ArraySchema(schema = @Schema(example = "name"))
+            )
+            @RequestParam(name = "sorts") String[] sorts,
+            @Parameter(description = "Page size, defaults to 15 and is capped per endpoint", example = "15")
+            @RequestParam(name = "size", required = false) Integer size,
+            @Parameter(description = "Not supported with cursor paging, windows are always returned with every field")
+            @RequestParam(name = "fields", required = false) Set<String> fields) {
+
+        InvalidRequestParamException.notWithCursor(fields);
+        InvalidRequestParamException.notKeysetSortable(sorts, Library.class);
+
+        ScrollPosition position = Cursors.decode(cursor, Library.class, sorts);
+
+        Window<LibraryData> libraries = libraryService.findAll(position, Sort.by(sorts), Limit.of(pagination.sizeFor("libraries", size)));
+
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(60, TimeUnit.SECONDS).cachePublic())
+                .body(CursorPage.of(libraries));
     }
 
     @Operation(
@@ -177,7 +261,7 @@ public class LibraryController {
 
         return ResponseEntity.ok()
                 .cacheControl(CacheControl.maxAge(60, TimeUnit.SECONDS).cachePublic())
-                .body(LibraryData.wrapLibrary(libraryService.findById(id)));
+                .body(libraryService.findById(id));
     }
 
     @Operation(
@@ -476,16 +560,18 @@ public class LibraryController {
                             """,
                     array = @ArraySchema(schema = @Schema(example = "isbn"))
             )
-            @RequestParam(name = "sorts") String[] sorts) {
+            @RequestParam(name = "sorts") String[] sorts,
+            @Parameter(description = "Page size, defaults to 15 and is capped per endpoint", example = "15")
+            @RequestParam(name = "size", required = false) Integer size) {
 
         InvalidRequestParamException.notPositivePage(pageNumber);
         InvalidRequestParamException.notValidSorts(sorts, BookCopy.class);
 
-        Library library = libraryService.findById(id);
+        Library library = libraryService.referenceTo(libraryService.findById(id));
 
         var pageable = PageRequest.of(
                 pageNumber - 1,
-                PAGE_SIZE,
+                pagination.sizeFor("library-books", size),
                 Sort.by(sorts)
         );
 
@@ -495,6 +581,143 @@ public class LibraryController {
 
     }
 
+    @Operation(
+            summary = "Get library book copies by cursor",
+            description = "Returns a window of book copies of the given library after the given cursor using keyset paging. " +
+                    "Pass an empty cursor for the first window and the returned nextCursor for the following ones."
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Window of results with the cursor of the next one",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = CursorPage.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid cursor or sorts",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponse.class),
+                            examples = @ExampleObject(
+                                    name = "InvalidCursor",
+                                    value = """
+                                            {
+                                              "code": 2,
+                                              "status": 400,
+                                              "error": "BAD_REQUEST",
+                                              "message": "The supplied cursor is not valid",
+                                              "path": "/api/libraries/1/books",
+                                              "timestamp": "2025-12-02T21:44:08.430Z"
+                                            }
+                                            """
+                            )
+                    )
+            )
+    })
+    @GetMapping(value = "/libraries/{id}/books", params = CURSOR_PARAM)
+    public ResponseEntity<CursorPage<BookCopyData>> getLibraryBooksByIdByCursor(
+            @Parameter(description = "ID of the library", example = "1")
+            @PathVariable long id,
+            @Parameter(description = "Continuation token of the previous window, empty for the first one")
+            @RequestParam(name = CURSOR_PARAM) String cursor,
+            @Parameter(
+                    description = """
+                            Sorting fields (property names), the id is always appended as a tie breaker.
+                            Multiple values are passed by repeating the parameter, e.g.:
+                            ?cursor=&sorts=barcode
+                            """,
+                    array = @ArraySchema(schema = @Schema(example = "barcode"))
+            )
+            @RequestParam(name = "sorts") String[] sorts,
+            @Parameter(description = "Page size, defaults to 15 and is capped per endpoint", example = "15")
+            @RequestParam(name = "size", required = false) Integer size) {
+
+        InvalidRequestParamException.notKeysetSortable(sorts, BookCopy.class);
+
+        ScrollPosition position = Cursors.decode(cursor, BookCopy.class, sorts);
+
+        Library library = libraryService.referenceTo(libraryService.findById(id));
+
+        Window<BookCopyData> copies = libraryService.findCopiesByLibrary(library, position, Sort.by(sorts), Limit.of(pagination.sizeFor("library-books", size)));
+
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(60, TimeUnit.SECONDS).cachePublic())
+                .body(CursorPage.of(copies));
+    }
+
+    @Operation(
+            summary = "Get library book copies without totals",
+            description = "Returns a page of book copies of the given library. " +
+                    "Skips the total count query; hasNext is resolved by fetching one extra row."
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Slice of results without totals",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = SlicePage.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid page or sorts",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponse.class),
+                            examples = @ExampleObject(
+                                    name = "InvalidPageOrSorts",
+                                    value = """
+                                            {
+                                              "code": 2,
+                                              "status": 400,
+                                              "error": "BAD_REQUEST",
+                                              "message": "The supplied value for page is not valid",
+                                              "path": "/api/libraries/1/books",
+                                              "timestamp": "2025-12-02T21:44:08.430Z"
+                                            }
+                                            """
+                            )
+                    )
+            )
+    })
+    @GetMapping(value = "/libraries/{id}/books", params = {"count=false", "!" + CURSOR_PARAM})
+    public ResponseEntity<SlicePage<BookCopyData>> getLibraryBooksByIdSlice(
+            @Parameter(description = "ID of the library", example = "1")
+            @PathVariable long id,
+            @Parameter(description = "Page number starting from 1", example = "1")
+            @RequestParam(name = "page") int pageNumber,
+            @Parameter(
+                    description = """
+                            Sorting fields (property names).
+                            Multiple values are passed by repeating the parameter, e.g.:
+                            ?page=1&count=false&sorts=barcode
+                            """,
+                    array = @ArraySchema(schema = @Schema(example = "barcode"))
+            )
+            @RequestParam(name = "sorts") String[] sorts,
+            @Parameter(description = "Page size, defaults to 15 and is capped per endpoint", example = "15")
+            @RequestParam(name = "size", required = false) Integer size) {
+
+        InvalidRequestParamException.notPositivePage(pageNumber);
+        InvalidRequestParamException.notValidSorts(sorts, BookCopy.class);
+
+        var pageable = PageRequest.of(
+                pageNumber - 1,
+                pagination.sizeFor("library-books", size),
+                Sort.by(sorts)
+        );
+
+        Library library = libraryService.referenceTo(libraryService.findById(id));
+
+        Slice<BookCopyData> copies = libraryService.findCopiesSliceByLibrary(library, pageable);
+
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(60, TimeUnit.SECONDS).cachePublic())
+                .body(SlicePage.of(copies));
+    }
+
     @Operation(
             summary = "Add a new book copy to a library",
             description = "Creates a new book copy in the given library.",
@@ -633,7 +856,7 @@ public class LibraryController {
             @PathVariable long id,
             @RequestBody @Valid BookCopyCreateView newBookCopy) {
 
-        Library library = libraryService.findById(id);
+        Library library = libraryService.referenceTo(libraryService.findById(id));
 
         BookCopyData saved = libraryService.addBookCopyTo(library, newBookCopy);
 
@@ -786,7 +1009,7 @@ public class LibraryController {
             @PathVariable long bookId,
             @RequestBody @Valid BookCopyUpdateView updateData) {
 
-        Library library = libraryService.findById(libraryId);
+        Library library = libraryService.referenceTo(libraryService.findById(libraryId));
 
         return ResponseEntity.ok(libraryService.updateBookCopy(library, bookId, updateData));
     }
@@ -870,7 +1093,7 @@ public class LibraryController {
             @Parameter(description = "ID of the book copy", example = "100")
             @PathVariable long bookId) {
 
-        Library library = libraryService.findById(libraryId);
+        Library library = libraryService.referenceTo(libraryService.findById(libraryId));
 
         libraryService.deleteBookCopy(library, bookId);
 
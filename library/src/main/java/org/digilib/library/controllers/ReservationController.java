@@ -10,15 +10,21 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.digilib.library.errors.exceptions.InvalidRequestParamException;
 import org.digilib.library.models.User;
+import org.digilib.library.models.dto.HoldData;
 import org.digilib.library.models.dto.book.LibraryBookData;
 import org.digilib.library.openapi.ErrorResponse;
 import org.digilib.library.services.BookCopyService;
+import org.digilib.library.services.HoldService;
+import org.digilib.library.validators.isbn.IsbnValidator;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/api")
 @RequiredArgsConstructor
@@ -26,6 +32,7 @@ import org.springframework.web.bind.annotation.*;
 public class ReservationController {
 
     private final BookCopyService bookCopyService;
+    private final HoldService holdService;
 
     @Operation(
             summary = "Reserve a book copy",
@@ -156,4 +163,202 @@ public class ReservationController {
         LibraryBookData reserved = bookCopyService.reserveCopy(copyId, currentUser.getEmail());
         return ResponseEntity.ok(reserved);
     }
+
+    @Operation(
+            summary = "Reserve any copy of a book",
+            description = """
+                    Reserves any AVAILABLE copy of the book for the authenticated user.
+                    Copies in the preferred libraries are taken first, in the given order,
+                    then copies from any other library.
+                    """,
+            security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "A copy of the book was reserved",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = LibraryBookData.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid isbn",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Book or user not found",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "409",
+                    description = "No copy of the book is available",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class),
+                            examples = @ExampleObject(
+                                    name = "NoCopyAvailable",
+                                    value = """
+                                            {
+                                              "code": 3,
+                                              "status": 409,
+                                              "error": "CONFLICT",
+                                              "message": "No copy of the book is available for reservation.",
+                                              "path": "/api/books/9780132350884/copies/reserve",
+                                              "timestamp": "2025-12-02T22:20:04Z"
+                                            }
+                                            """
+                            )
+                    )
+            )
+    })
+    @PreAuthorize("hasRole('USER')")
+    @PostMapping("/books/{isbn}/copies/reserve")
+    public ResponseEntity<LibraryBookData> reserveAnyBookCopy(
+            @Parameter(description = "ISBN-13 of the book", example = "9780132350884")
+            @PathVariable String isbn,
+            @Parameter(description = "Ids of the preferred libraries, most preferred first", example = "3")
+            @RequestParam(name = "libraryIds", required = false) List<Long> libraryIds,
+            @AuthenticationPrincipal User currentUser) {
+
+        InvalidRequestParamException.throwIf(isbn, "isbn", s -> !IsbnValidator.isValidIsbn13(s));
+
+        LibraryBookData reserved = bookCopyService.reserveAnyCopy(
+                isbn,
+                libraryIds == null ? List.of() : libraryIds,
+                currentUser.getEmail()
+        );
+        return ResponseEntity.ok(reserved);
+    }
+
+    @Operation(
+            summary = "Join the hold queue of a book",
+            description = """
+                    Puts the authenticated user in the queue of a book, first come, first served.
+                    When a copy becomes available it is reserved for the user at the head of the queue,
+                    and shows up in their reservations. If a copy is available right away it is reserved immediately.
+                    Joining again keeps the current place.
+                    """,
+            security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Place in the queue, or the allocation if a copy was free",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = HoldData.class),
+                            examples = @ExampleObject(
+                                    name = "Waiting",
+                                    value = """
+                                            {
+                                              "isbn": "9780132350884",
+                                              "position": 4,
+                                              "queuedAt": "2025-12-02T22:20:05Z",
+                                              "allocated": false
+                                            }
+                                            """
+                            )
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Book not found",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "409",
+                    description = "A copy of the book is already reserved for the user",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class)
+                    )
+            )
+    })
+    @PreAuthorize("hasRole('USER')")
+    @PostMapping("/books/{isbn}/holds")
+    public ResponseEntity<HoldData> placeHold(
+            @Parameter(description = "ISBN-13 of the book", example = "9780132350884")
+            @PathVariable String isbn,
+            @AuthenticationPrincipal User currentUser) {
+
+        InvalidRequestParamException.throwIf(isbn, "isbn", s -> !IsbnValidator.isValidIsbn13(s));
+
+        return ResponseEntity.ok(holdService.enqueue(isbn, currentUser.getEmail()));
+    }
+
+    @Operation(
+            summary = "Get the user's hold on a book",
+            description = "Returns the place of the authenticated user in the queue of a book, " +
+                    "or that a copy was allocated to them.",
+            security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Hold state",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = HoldData.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "The user has no hold on the book",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class)
+                    )
+            )
+    })
+    @PreAuthorize("hasRole('USER')")
+    @GetMapping("/books/{isbn}/holds/me")
+    public ResponseEntity<HoldData> getHold(
+            @Parameter(description = "ISBN-13 of the book", example = "9780132350884")
+            @PathVariable String isbn,
+            @AuthenticationPrincipal User currentUser) {
+
+        InvalidRequestParamException.throwIf(isbn, "isbn", s -> !IsbnValidator.isValidIsbn13(s));
+
+        return ResponseEntity.ok(holdService.findHold(isbn, currentUser.getEmail()));
+    }
+
+    @Operation(
+            summary = "Leave the hold queue of a book",
+            security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "204", description = "Hold cancelled"),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "The user has no hold on the book",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class)
+                    )
+            )
+    })
+    @PreAuthorize("hasRole('USER')")
+    @DeleteMapping("/books/{isbn}/holds/me")
+    public ResponseEntity<Void> cancelHold(
+            @Parameter(description = "ISBN-13 of the book", example = "9780132350884")
+            @PathVariable String isbn,
+            @AuthenticationPrincipal User currentUser) {
+
+        InvalidRequestParamException.throwIf(isbn, "isbn", s -> !IsbnValidator.isValidIsbn13(s));
+
+        holdService.cancel(isbn, currentUser.getEmail());
+        return ResponseEntity.noContent().build();
+    }
 }
@@ -0,0 +1,104 @@
+package org.digilib.library.controllers;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.ExampleObject;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.digilib.library.errors.exceptions.InvalidRequestParamException;
+import org.digilib.library.models.dto.SuggestionData;
+import org.digilib.library.openapi.ErrorResponse;
+import org.digilib.library.services.TypeaheadIndex;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@RestController
+@RequestMapping("/api")
+@RequiredArgsConstructor
+@Tag(name = "Suggestions", description = "Search as you type over book titles and author names")
+public class SuggestController {
+
+    private final TypeaheadIndex typeaheadIndex;
+
+    @Value("${typeahead.max-results}")
+    private int maxResults;
+
+    @Operation(
+            summary = "Suggest books and authors",
+            description = "Returns books and authors having a word that starts with each term of the query. " +
+                    "Served from memory, meant to be called on every keystroke."
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Suggestions, most relevant first",
+                    content = @Content(array = @ArraySchema(schema = @Schema(implementation = SuggestionData.class)))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid limit",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponse.class),
+                            examples = @ExampleObject(
+                                    name = "InvalidLimit",
+                                    value = """
+                                            {
+                                              "code": 2,
+                                              "status": 400,
+                                              "error": "BAD_REQUEST",
+                                              "message": "The supplied value for limit is not valid",
+                                              "path": "/api/suggest",
+                                              "details": {},
+                                              "timestamp": "2025-12-02T21:44:08.430Z"
+                                            }
+                                            """
+                            )
+                    )
+            )
+    })
+    @GetMapping("/suggest")
+    public ResponseEntity<List<SuggestionData>> suggest(
+            @Parameter(description = "Text typed so far", example = "clean ar")
+            @RequestParam(name = "q") String query,
+            @Parameter(description = "Maximum number of suggestions, at most 20", example = "10")
+            @RequestParam(name = "limit", defaultValue = "10") int limit) {
+
+        InvalidRequestParamException.throwIf(limit, "limit", value -> value <= 0 || value > maxResults);
+
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(30, TimeUnit.SECONDS).cachePublic())
+                .body(typeaheadIndex.suggest(query, limit));
+    }
+
+    @Operation(
+            summary = "Rebuild the suggestion index",
+            description = "Rebuilds the suggestion index from the database, e.g. after changes made outside the API.",
+            security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "204", description = "Index rebuilt"),
+            @ApiResponse(
+                    responseCode = "403",
+                    description = "Forbidden – missing ADMIN role",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+            )
+    })
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/suggest/rebuild")
+    public ResponseEntity<Void> rebuild() {
+        typeaheadIndex.rebuild();
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -13,19 +13,27 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.digilib.library.configs.PaginationProperties;
 import org.digilib.library.errors.exceptions.InvalidRequestParamException;
 import org.digilib.library.models.Reservation;
 import org.digilib.library.models.User;
+import org.digilib.library.models.dto.CursorPage;
 import org.digilib.library.models.dto.ReservationData;
+import org.digilib.library.models.dto.SlicePage;
 import org.digilib.library.models.dto.user.UserData;
 import org.digilib.library.models.dto.user.UserUpdate;
 import org.digilib.library.openapi.ErrorResponse;
 import org.digilib.library.repositories.ReservationRepository;
 import org.digilib.library.services.JwtService;
 import org.digilib.library.services.UserService;
+import org.digilib.library.utils.Cursors;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -35,7 +43,7 @@ import org.springframework.web.bind.annotation.*;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 
-import static org.digilib.library.LibraryApplication.PAGE_SIZE;
+import static org.digilib.library.utils.Cursors.CURSOR_PARAM;
 
 @Slf4j
 @RestController
@@ -48,6 +56,8 @@ public class UserController {
     private final JwtService jwtService;
     private final ReservationRepository reservationRepository;
 
+    private final PaginationProperties pagination;
+
     @Operation(
             summary = "Get current authenticated user",
             description = "Returns the currently authenticated user with roles extracted from the access token.",
@@ -108,7 +118,7 @@ public class UserController {
 
         String token = authorizationHeader.replace("Bearer ", "");
         List<String> roles = jwtService.extractRolesFromToken(token);
-        return ResponseEntity.ok(UserData.wrapUser(currentUser, roles));
+        return ResponseEntity.ok(UserData.wrapUser(userService.loadProfile(currentUser), roles));
     }
 
     @Operation(
@@ -207,14 +217,16 @@ public class UserController {
                             """,
                     array = @ArraySchema(schema = @Schema(example = "reservedAt"))
             )
-            @RequestParam(name = "sorts") String[] sorts) {
+            @RequestParam(name = "sorts") String[] sorts,
+            @Parameter(description = "Page size, defaults to 15 and is capped per endpoint", example = "15")
+            @RequestParam(name = "size", required = false) Integer size) {
 
         InvalidRequestParamException.notPositivePage(pageNumber);
         InvalidRequestParamException.notValidSorts(sorts, Reservation.class);
 
         PageRequest pageable = PageRequest.of(
                 pageNumber - 1,
-                PAGE_SIZE,
+                pagination.sizeFor("reservations", size),
                 Sort.by(sorts)
         );
         Page<Reservation> reservations = reservationRepository
@@ -223,6 +235,137 @@ public class UserController {
         return ResponseEntity.ok(reservations.map(ReservationData::of));
     }
 
+    @Operation(
+            summary = "Get current user's reservations by cursor",
+            description = "Returns a window of the authenticated user's reservations after the given cursor using keyset paging. " +
+                    "Pass an empty cursor for the first window and the returned nextCursor for the following ones.",
+            security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Window of results with the cursor of the next one",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = CursorPage.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid cursor or sorts",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponse.class),
+                            examples = @ExampleObject(
+                                    name = "InvalidCursor",
+                                    value = """
+                                            {
+                                              "code": 2,
+                                              "status": 400,
+                                              "error": "BAD_REQUEST",
+                                              "message": "The supplied cursor is not valid",
+                                              "path": "/api/users/me/reservations",
+                                              "timestamp": "2025-12-02T21:44:08.430Z"
+                                            }
+                                            """
+                            )
+                    )
+            )
+    })
+    @GetMapping(value = "/me/reservations", params = CURSOR_PARAM)
+    public ResponseEntity<CursorPage<ReservationData>> getCurrentUserReservationsByCursor(
+            @AuthenticationPrincipal User currentUser,
+            @Parameter(description = "Continuation token of the previous window, empty for the first one")
+            @RequestParam(name = CURSOR_PARAM) String cursor,
+            @Parameter(
+                    description = """
+                            Sorting fields (property names), the id is always appended as a tie breaker.
+                            Multiple values are passed by repeating the parameter, e.g.:
+                            ?cursor=&sorts=reservedAt
+                            """,
+                    array = @ArraySchema(schema = @Schema(example = "reservedAt"))
+            )
+            @RequestParam(name = "sorts") String[] sorts,
+            @Parameter(description = "Page size, defaults to 15 and is capped per endpoint", example = "15")
+            @RequestParam(name = "size", required = false) Integer size) {
+
+        InvalidRequestParamException.notKeysetSortable(sorts, Reservation.class);
+
+        ScrollPosition position = Cursors.decode(cursor, Reservation.class, sorts);
+
+        Window<Reservation> reservations = reservationRepository
+                .findAllByUserId(currentUser.getId(), position, Sort.by(sorts), Limit.of(pagination.sizeFor("reservations", size)));
+
+        return ResponseEntity.ok(CursorPage.of(reservations.map(ReservationData::of)));
+    }
+
+    @Operation(
+            summary = "Get current user's reservations without totals",
+            description = "Returns a page of the authenticated user's reservations. " +
+                    "Skips the total count query; hasNext is resolved by fetching one extra row.",
+            security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Slice of results without totals",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = SlicePage.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid page or sorts",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponse.class),
+                            examples = @ExampleObject(
+                                    name = "InvalidPageOrSorts",
+                                    value = """
+                                            {
+                                              "code": 2,
+                                              "status": 400,
+                                              "error": "BAD_REQUEST",
+                                              "message": "The supplied value for page is not valid",
+                                              "path": "/api/users/me/reservations",
+                                              "timestamp": "2025-12-02T21:44:08.430Z"
+                                            }
+                                            """
+                            )
+                    )
+            )
+    })
+    @GetMapping(value = "/me/reservations", params = {"count=false", "!" + CURSOR_PARAM})
+    public ResponseEntity<SlicePage<ReservationData>> getCurrentUserReservationsSlice(
+            @AuthenticationPrincipal User currentUser,
+            @Parameter(description = "Page number starting from 1", example = "1")
+            @RequestParam(name = "page") int pageNumber,
+            @Parameter(
+                    description = """
+                            Sorting fields (property names).
+                            Multiple values are passed by repeating the parameter, e.g.:
+                            ?page=1&count=false&sorts=reservedAt
+                            """,
+                    array = @ArraySchema(schema = @Schema(example = "reservedAt"))
+            )
+            @RequestParam(name = "sorts") String[] sorts,
+            @Parameter(description = "Page size, defaults to 15 and is capped per endpoint", example = "15")
+            @RequestParam(name = "size", required = false) Integer size) {
+
+        InvalidRequestParamException.notPositivePage(pageNumber);
+        InvalidRequestParamException.notValidSorts(sorts, Reservation.class);
+
+        var pageable = PageRequest.of(
+                pageNumber - 1,
+                pagination.sizeFor("reservations", size),
+                Sort.by(sorts)
+        );
+
+        Slice<Reservation> reservations = reservationRepository
+                .findSliceByUserId(currentUser.getId(), pageable);
+
+        return ResponseEntity.ok(SlicePage.of(reservations.map(ReservationData::of)));
+    }
+
 
     @Operation(
             summary = "Get all users (admin only)",
@@ -338,14 +481,16 @@ public class UserController {
                             """,
                     array = @ArraySchema(schema = @Schema(example = "email"))
             )
-            @RequestParam(name = "sorts") String[] sorts) {
+            @RequestParam(name = "sorts") String[] sorts,
+            @Parameter(description = "Page size, defaults to 15 and is capped per endpoint", example = "15")
+            @RequestParam(name = "size", required = false) Integer size) {
 
         InvalidRequestParamException.notPositivePage(pageNumber);
         InvalidRequestParamException.notValidSorts(sorts, User.class);
 
         var pageable = PageRequest.of(
                 pageNumber - 1,
-                PAGE_SIZE,
+                pagination.sizeFor("users", size),
                 Sort.by(sorts)
         );
 
@@ -355,6 +500,71 @@ public class UserController {
 
     }
 
+    @Operation(
+            summary = "Get all users by cursor (admin only)",
+            description = "Returns a window of users after the given cursor using keyset paging. " +
+                    "Pass an empty cursor for the first window and the returned nextCursor for the following ones.",
+            security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Window of results with the cursor of the next one",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = CursorPage.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid cursor or sorts",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponse.class),
+                            examples = @ExampleObject(
+                                    name = "InvalidCursor",
+                                    value = """
+                                            {
+                                              "code": 2,
+                                              "status": 400,
+                                              "error": "BAD_REQUEST",
+                                              "message": "The supplied cursor is not valid",
+                                              "path": "/api/users/all",
+                                              "timestamp": "2025-12-02T21:44:08.430Z"
+                                            }
+                                            """
+                            )
+                    )
+            )
+    })
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping(value = "/all", params = CURSOR_PARAM)
+    public ResponseEntity<CursorPage<UserData>> getAllUsersByCursor(
+            @AuthenticationPrincipal User currentUser,
+            @Parameter(description = "Continuation token of the previous window, empty for the first one")
+            @RequestParam(name = CURSOR_PARAM) String cursor,
+            @Parameter(
+                    description = """
+                            Sorting fields (property names), the id is always appended as a tie breaker.
+                            Multiple values are passed by repeating the parameter, e.g.:
+                            ?cursor=&sorts=email
+                            """,
+                    array = @ArraySchema(schema = @Schema(example = "email"))
+            )
+            @RequestParam(name = "sorts") String[] sorts,
+            @Parameter(description = "Page size, defaults to 15 and is capped per endpoint", example = "15")
+            @RequestParam(name = "size", required = false) Integer size) {
+
+        InvalidRequestParamException.notKeysetSortable(sorts, User.class);
+
+        ScrollPosition position = Cursors.decode(cursor, User.class, sorts);
+
+        Window<UserData> users = userService.findAll(currentUser.getId(), position, Sort.by(sorts), Limit.of(pagination.sizeFor("users", size)));
+
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(60, TimeUnit.SECONDS).cachePrivate())
+                .body(CursorPage.of(users));
+    }
+
     @Operation(
             summary = "Update a user",
             description = "Partially updates a user. Typically, a user can update their own profile; admins may update others (enforced in service layer).",
@@ -1,10 +1,16 @@
 package org.digilib.library.errors.exceptions;
 
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Transient;
 import lombok.Getter;
 
 import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 import java.util.function.IntPredicate;
 import java.util.function.Predicate;
@@ -48,6 +54,7 @@ public final class InvalidRequestParamException extends RuntimeException {
         }
 
         List<String> declaredFields = Arrays.stream(clazz.getDeclaredFields())
+                .filter(InvalidRequestParamException::isPersistent)
                 .map(Field::getName)
                 .toList();
 
@@ -69,6 +76,68 @@ public final class InvalidRequestParamException extends RuntimeException {
 
     }
 
+    /**
+     * Keyset paging compares sort keys of the last row, so every sort field must be a basic, non null column:
+     * a null key would compare as unknown and end the scroll early.
+     */
+    public static <T> void notKeysetSortable(String[] sorts, Class<? extends T> clazz) {
+        notValidSorts(sorts, clazz);
+
+        List<String> paramNames = new ArrayList<>(sorts.length);
+
+        for (String fieldName : sorts) {
+            Field field = Arrays.stream(clazz.getDeclaredFields())
+                    .filter(declared -> declared.getName().equals(fieldName))
+                    .findFirst()
+                    .orElseThrow();
+            Class<?> type = field.getType();
+
+            if (Collection.class.isAssignableFrom(type) || type.isAnnotationPresent(Entity.class) || isNullable(field)) {
+                paramNames.add(fieldName);
+            }
+        }
+
+        if (!paramNames.isEmpty()) {
+            throw new InvalidRequestParamException(
+                    "The supplied sorting fields cannot be used with cursor paging",
+                    "sorts",
+                    paramNames
+            );
+        }
+    }
+
+    /**
+     * Cursor windows are read as whole entities to take their keys from, so they always carry every field.
+     */
+    public static void notWithCursor(Collection<String> fields) {
+        if (fields != null && !fields.isEmpty()) {
+            throw new InvalidRequestParamException(
+                    "The fields parameter cannot be used with cursor paging",
+                    "fields",
+                    fields
+            );
+        }
+    }
+
+    /**
+     * Only mapped columns can be sorted by, transient and static fields have nothing to order in the query.
+     */
+    private static boolean isPersistent(Field field) {
+        int modifiers = field.getModifiers();
+        return !Modifier.isStatic(modifiers)
+                && !Modifier.isTransient(modifiers)
+                && !field.isAnnotationPresent(Transient.class);
+    }
+
+    private static boolean isNullable(Field field) {
+        if (field.getType().isPrimitive() || field.isAnnotationPresent(Id.class)) {
+            return false;
+        }
+
+        Column column = field.getAnnotation(Column.class);
+        return column == null || column.nullable();
+    }
+
     private static InvalidRequestParamException invalidRequestParamException(String paramName, Object paramValue) {
         return new InvalidRequestParamException("The supplied value for " + paramName + " is not valid", paramName, paramValue);
     }
@@ -1,6 +1,5 @@
 package org.digilib.library.filters;
 
-import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -8,7 +7,14 @@ import jakarta.servlet.http.HttpServletResponse;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.digilib.library.models.User;
 import org.digilib.library.services.JwtService;
+import org.digilib.library.services.PrincipalCache;
+import org.digilib.library.services.TokenRevocationList;
+import org.digilib.library.services.VerifiedToken;
+import org.digilib.library.services.VerifiedTokenCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.DisabledException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -28,10 +34,19 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
 
+    private final VerifiedTokenCache verifiedTokenCache;
+
     private final UserDetailsService userDetailsService;
 
+    private final PrincipalCache principalCache;
+
+    private final TokenRevocationList tokenRevocationList;
+
     private final HandlerExceptionResolver handlerExceptionResolver;
 
+    @Value("${security.jwt.stateless-principal}")
+    private boolean statelessPrincipal;
+
 
     @Override
     protected void doFilterInternal(@NonNull HttpServletRequest request,
@@ -46,12 +61,17 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 
         try {
             String token = auth.substring(7);
-            String userEmail = jwtService.extractFromToken(token, Claims::getSubject);
+            VerifiedToken verified = verifiedTokenCache.verify(token);
+            String userEmail = verified.subject();
 
             Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
 
             if (userEmail != null && authentication == null) {
-                createAuthToken(userEmail, token, request);
+                if (statelessPrincipal) {
+                    createStatelessAuthToken(verified, request);
+                } else {
+                    createAuthToken(userEmail, verified, request);
+                }
             }
 
             filterChain.doFilter(request, response);
@@ -63,13 +83,27 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 
     }
 
-    private void createAuthToken(String userEmail, String token, HttpServletRequest request) {
-        UserDetails details = userDetailsService.loadUserByUsername(userEmail);
-        if (jwtService.isValidToken(token, details)){
-            var authToken = new UsernamePasswordAuthenticationToken(details, null, details.getAuthorities());
+    private void createAuthToken(String userEmail, VerifiedToken verified, HttpServletRequest request) {
+        UserDetails details = principalCache.get(userEmail, userDetailsService::loadUserByUsername);
+        if (jwtService.isValidToken(verified, details)){
+            authenticate(details, request);
+        }
+    }
 
-            authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-            SecurityContextHolder.getContext().setAuthentication(authToken);
+    private void createStatelessAuthToken(VerifiedToken verified, HttpServletRequest request) {
+        User principal = jwtService.principalFrom(verified);
+
+        if (tokenRevocationList.isRevoked(principal.getId())) {
+            throw new DisabledException("User account is disabled");
         }
+
+        authenticate(principal, request);
+    }
+
+    private void authenticate(UserDetails details, HttpServletRequest request) {
+        var authToken = new UsernamePasswordAuthenticationToken(details, null, details.getAuthorities());
+
+        authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        SecurityContextHolder.getContext().setAuthentication(authToken);
     }
 }
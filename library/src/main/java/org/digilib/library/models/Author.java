@@ -4,6 +4,8 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.Instant;
 import java.time.LocalDate;
@@ -13,10 +15,13 @@ import java.util.List;
 @Entity
 @Data
 @Table(name = "authors", indexes = {
-        @Index(name = "idx_authors_id", columnList = "id")
+        @Index(name = "idx_authors_id", columnList = "id"),
+        @Index(name = "idx_authors_updated_at", columnList = "updated_at")
 })
 @AllArgsConstructor
 @Builder
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "entity.author")
 public final class Author {
 
     @Id
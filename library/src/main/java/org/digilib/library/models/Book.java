@@ -3,6 +3,8 @@ package org.digilib.library.models;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Size;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.Instant;
 import java.time.LocalDate;
@@ -13,10 +15,13 @@ import java.util.List;
 @Data
 @Table(name = "books", indexes = {
         @Index(name = "idx_books_title", columnList = "title"),
-        @Index(name = "idx_books_isbn", columnList = "isbn", unique = true)
+        @Index(name = "idx_books_isbn", columnList = "isbn", unique = true),
+        @Index(name = "idx_books_updated_at", columnList = "updated_at")
 })
 @Builder
 @AllArgsConstructor
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "entity.book")
 public final class Book {
 
     @Id
@@ -51,6 +56,7 @@ public final class Book {
 
     @ManyToMany(fetch = FetchType.LAZY, cascade =
             {CascadeType.DETACH, CascadeType.MERGE, CascadeType.PERSIST, CascadeType.REFRESH})
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "entity.book.authors")
     @JoinTable(
             name = "book_authors",
             joinColumns = {@JoinColumn(name = "book_id", referencedColumnName = "isbn")},
@@ -0,0 +1,48 @@
+package org.digilib.library.models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.time.Instant;
+
+/**
+ * A user waiting for a copy of a book. Holds of a book are served first come, first served.
+ */
+@Entity
+@Table(name = "holds", indexes = {
+        @Index(name = "idx_holds_book_user", columnList = "book_isbn, user_id", unique = true),
+        @Index(name = "idx_holds_book_queue", columnList = "book_isbn, created_at, id")
+})
+@Data
+@AllArgsConstructor
+@Builder
+public final class Hold {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "book_isbn", referencedColumnName = "isbn", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Book book;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "user_id", referencedColumnName = "id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private User user;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @PrePersist
+    private void onCreate() {
+        this.createdAt = Instant.now();
+    }
+
+    public Hold() {}
+}
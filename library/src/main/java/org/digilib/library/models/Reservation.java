@@ -11,7 +11,8 @@ import java.time.temporal.ChronoUnit;
 @Entity
 @Table(name = "reservations", indexes = {
         @Index(name = "idx_reservations_id", columnList = "id", unique = true),
-        @Index(name = "idx_reservations_book_user", columnList = "book_isbn, user_id", unique = true)
+        @Index(name = "idx_reservations_book_user", columnList = "book_isbn, user_id", unique = true),
+        @Index(name = "idx_reservations_expires_at", columnList = "expires_at")
 })
 @Data
 @AllArgsConstructor
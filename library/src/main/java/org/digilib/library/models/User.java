@@ -55,6 +55,14 @@ public final class User implements UserDetails {
     @EqualsAndHashCode.Exclude
     private List<Reservation> reservations = new ArrayList<>();
 
+    /**
+     * Set on principals built from token claims, which only carry id, email and roles.
+     */
+    @Transient
+    @Builder.Default
+    @EqualsAndHashCode.Exclude
+    private boolean claimsOnly = false;
+
     public User() {}
 
     @Override
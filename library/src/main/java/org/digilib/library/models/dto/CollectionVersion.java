@@ -0,0 +1,11 @@
+package org.digilib.library.models.dto;
+
+import java.time.Instant;
+
+/**
+ * Identifies the state of a whole table for conditional requests: any insert, update or delete changes it.
+ * @param count number of rows.
+ * @param lastUpdated latest {@code updated_at} of the rows, null if there are none.
+ */
+public record CollectionVersion(long count, Instant lastUpdated) {
+}
@@ -0,0 +1,29 @@
+package org.digilib.library.models.dto;
+
+import org.digilib.library.utils.Cursors;
+import org.springframework.data.domain.Window;
+
+import java.util.List;
+
+public record CursorPage<T>(
+        List<T> content,
+
+        int size,
+
+        boolean hasNext,
+
+        String nextCursor
+) {
+    public static <T> CursorPage<T> of(Window<T> window) {
+        String nextCursor = window.hasNext() && !window.isEmpty()
+                ? Cursors.encode(window.positionAt(window.size() - 1))
+                : null;
+
+        return new CursorPage<>(
+                window.getContent(),
+                window.size(),
+                window.hasNext(),
+                nextCursor
+        );
+    }
+}
@@ -0,0 +1,32 @@
+package org.digilib.library.models.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import org.digilib.library.models.Hold;
+
+import java.time.Instant;
+
+/**
+ * State of a user's place in the hold queue of a book.
+ * @param isbn isbn of the book.
+ * @param position 1-based place in the queue, absent once a copy was allocated.
+ * @param queuedAt when the user joined the queue, absent once a copy was allocated.
+ * @param allocated whether a copy was reserved for the user; it then shows up in their reservations.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record HoldData(
+        String isbn,
+
+        Long position,
+
+        Instant queuedAt,
+
+        boolean allocated
+) {
+    public static HoldData waiting(Hold hold, long position) {
+        return new HoldData(hold.getBook().getIsbn(), position, hold.getCreatedAt(), false);
+    }
+
+    public static HoldData allocated(String isbn) {
+        return new HoldData(isbn, null, null, true);
+    }
+}
@@ -0,0 +1,33 @@
+package org.digilib.library.models.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record SlicePage<T>(
+        List<T> content,
+
+        int page,
+
+        int size,
+
+        boolean hasNext,
+
+        Long estimatedTotal
+) {
+    public static <T> SlicePage<T> of(Slice<T> slice) {
+        return of(slice, null);
+    }
+
+    public static <T> SlicePage<T> of(Slice<T> slice, Long estimatedTotal) {
+        return new SlicePage<>(
+                slice.getContent(),
+                slice.getNumber() + 1,
+                slice.getSize(),
+                slice.hasNext(),
+                estimatedTotal
+        );
+    }
+}
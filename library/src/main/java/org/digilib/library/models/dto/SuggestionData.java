@@ -0,0 +1,26 @@
+package org.digilib.library.models.dto;
+
+import org.digilib.library.models.Author;
+import org.digilib.library.models.Book;
+
+/**
+ * A typeahead suggestion.
+ * @param type {@code book} or {@code author}.
+ * @param id isbn of the book or id of the author.
+ * @param label text shown to the user and matched against the query.
+ */
+public record SuggestionData(String type, String id, String label) {
+
+    public static final String BOOK = "book";
+
+    public static final String AUTHOR = "author";
+
+    public static SuggestionData ofBook(Book book) {
+        return new SuggestionData(BOOK, book.getIsbn(), book.getTitle());
+    }
+
+    public static SuggestionData ofAuthor(Author author) {
+        return new SuggestionData(AUTHOR, String.valueOf(author.getId()),
+                author.getFirstName() + " " + author.getLastName());
+    }
+}
@@ -0,0 +1,7 @@
+package org.digilib.library.models.dto.book;
+
+/**
+ * Row of the {@code book_authors} join table, used to attach author ids to books without loading authors.
+ */
+public record BookAuthorId(String isbn, long authorId) {
+}
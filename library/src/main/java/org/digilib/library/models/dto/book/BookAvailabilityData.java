@@ -0,0 +1,26 @@
+package org.digilib.library.models.dto.book;
+
+import java.util.List;
+
+/**
+ * Copy counts of a book per status, in total and per library holding copies of it.
+ */
+public record BookAvailabilityData(
+        String isbn,
+        int available,
+        int reserved,
+        int checkedOut,
+        int lost,
+        List<LibraryAvailabilityData> libraries
+) {
+    public static BookAvailabilityData of(String isbn, List<LibraryAvailabilityData> libraries) {
+        return new BookAvailabilityData(
+                isbn,
+                libraries.stream().mapToInt(LibraryAvailabilityData::available).sum(),
+                libraries.stream().mapToInt(LibraryAvailabilityData::reserved).sum(),
+                libraries.stream().mapToInt(LibraryAvailabilityData::checkedOut).sum(),
+                libraries.stream().mapToInt(LibraryAvailabilityData::lost).sum(),
+                libraries
+        );
+    }
+}
@@ -3,6 +3,8 @@ package org.digilib.library.models.dto.book;
 import org.digilib.library.models.BookCopy;
 import org.digilib.library.models.Status;
 
+import java.time.LocalDate;
+
 public record BookCopyData(
         long id,
 
@@ -12,6 +14,16 @@ public record BookCopyData(
 
         BookData bookData
 ) {
+    /**
+     * Flat form for JPQL constructor expressions, which cannot nest.
+     */
+    public BookCopyData(long id, String barcode, Status status,
+                        String isbn, String title, String summary, String imageUrl, Integer pageCount,
+                        LocalDate publicationDate, String language, String edition) {
+        this(id, barcode, status,
+                new BookData(isbn, title, summary, imageUrl, pageCount, publicationDate, language, edition));
+    }
+
     public static BookCopyData wrapCopy(BookCopy bookCopy) {
         return new BookCopyData(
                 bookCopy.getId(),
@@ -1,9 +1,12 @@
 package org.digilib.library.models.dto.book;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
+import org.digilib.library.configs.SparseFieldsAdvice;
 import org.digilib.library.models.Book;
 
 import java.time.LocalDate;
 
+@JsonFilter(SparseFieldsAdvice.FILTER)
 public record BookData(
         String isbn,
 
@@ -0,0 +1,30 @@
+package org.digilib.library.models.dto.book;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import org.digilib.library.models.Book;
+import org.digilib.library.models.dto.genre.GenreData;
+
+import java.util.List;
+
+/**
+ * One line of the catalog export: the {@link BookData} fields, plus the genre and author ids when requested.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BookExportData(
+        @JsonUnwrapped
+        BookData book,
+
+        GenreData genre,
+
+        List<Long> authorIds
+) {
+    public static BookExportData wrapBook(Book book) {
+        return new BookExportData(BookData.wrapBook(book), null, null);
+    }
+
+    public static BookExportData wrapBook(Book book, List<Long> authorIds) {
+        GenreData genre = book.getGenre() == null ? null : GenreData.wrapGenre(book.getGenre());
+        return new BookExportData(BookData.wrapBook(book), genre, authorIds);
+    }
+}
@@ -0,0 +1,12 @@
+package org.digilib.library.models.dto.book;
+
+import java.util.Map;
+
+/**
+ * A rejected row of a bulk import.
+ * @param row 1-based position of the row in the upload, header excluded.
+ * @param isbn isbn of the row when it could be read.
+ * @param errors messages keyed by the offending field.
+ */
+public record BookImportFailure(long row, String isbn, Map<String, String> errors) {
+}
@@ -0,0 +1,18 @@
+package org.digilib.library.models.dto.book;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk import. {@code failures} lists at most the first 1000 rejected rows,
+ * {@code failed} counts all of them.
+ */
+public record BookImportResult(
+        long received,
+
+        long imported,
+
+        long failed,
+
+        List<BookImportFailure> failures
+) {
+}
@@ -0,0 +1,8 @@
+package org.digilib.library.models.dto.book;
+
+/**
+ * Keys of a search continuation token: rank and isbn of the last hit of a window.
+ * Its field types are used by {@link org.digilib.library.utils.Cursors#decode} to restore the key values.
+ */
+public record BookSearchCursor(float rank, String isbn) {
+}
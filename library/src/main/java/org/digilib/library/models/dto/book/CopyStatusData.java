@@ -0,0 +1,43 @@
+package org.digilib.library.models.dto.book;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import org.digilib.library.models.BookCopy;
+import org.digilib.library.models.Status;
+
+import java.time.Instant;
+
+/**
+ * Status change of a book copy pushed to event stream subscribers.
+ * @param status new status of the copy, absent when the copy was deleted.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record CopyStatusData(
+        long copyId,
+        String isbn,
+        long libraryId,
+        String barcode,
+        Status status,
+        Instant changedAt
+) {
+    public static CopyStatusData of(BookCopy copy) {
+        return new CopyStatusData(
+                copy.getId(),
+                copy.getBook().getIsbn(),
+                copy.getLibrary().getId(),
+                copy.getBarcode(),
+                copy.getStatus(),
+                Instant.now()
+        );
+    }
+
+    public static CopyStatusData deleted(BookCopy copy) {
+        return new CopyStatusData(
+                copy.getId(),
+                copy.getBook().getIsbn(),
+                copy.getLibrary().getId(),
+                copy.getBarcode(),
+                null,
+                Instant.now()
+        );
+    }
+}
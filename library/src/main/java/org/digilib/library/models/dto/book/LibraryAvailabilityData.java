@@ -0,0 +1,23 @@
+package org.digilib.library.models.dto.book;
+
+import org.digilib.library.repositories.BookCopyRepository.AvailabilityCounts;
+
+public record LibraryAvailabilityData(
+        long libraryId,
+        String libraryName,
+        int available,
+        int reserved,
+        int checkedOut,
+        int lost
+) {
+    public static LibraryAvailabilityData wrap(AvailabilityCounts counts) {
+        return new LibraryAvailabilityData(
+                counts.getLibraryId(),
+                counts.getLibraryName(),
+                counts.getAvailable(),
+                counts.getReserved(),
+                counts.getCheckedOut(),
+                counts.getLost()
+        );
+    }
+}
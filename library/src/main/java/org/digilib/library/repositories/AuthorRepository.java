@@ -2,15 +2,53 @@ package org.digilib.library.repositories;
 
 import org.digilib.library.models.Author;
 import org.digilib.library.models.Genre;
+import org.digilib.library.models.dto.CollectionVersion;
+import org.digilib.library.models.dto.SuggestionData;
+import org.digilib.library.models.dto.author.AuthorData;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 
 public interface AuthorRepository extends JpaRepository<Author, Long> {
 
+    /**
+     * Reads one page without counting the authors, the total is taken from {@link #findCollectionVersion()}.
+     */
+    @Query(value = """
+            SELECT new org.digilib.library.models.dto.author.AuthorData(
+                a.id, a.firstName, a.lastName, a.birthDate, a.deathDate)
+            FROM Author a
+            """)
+    List<AuthorData> findAllData(Pageable pageable);
+
     Page<Author> findAuthorsByGenre(Genre genre, Pageable pageable);
 
+    Window<Author> findAllBy(ScrollPosition position, Sort sort, Limit limit);
+
+    Window<Author> findAuthorsByGenre(Genre genre, ScrollPosition position, Sort sort, Limit limit);
+
     Optional<Author> findByIdAndGenre(long id, Genre genre);
+
+    @Query("""
+            SELECT new org.digilib.library.models.dto.SuggestionData(
+                'author', CAST(a.id AS String), CONCAT(a.firstName, ' ', a.lastName))
+            FROM Author a
+            """)
+    List<SuggestionData> findAllSuggestions();
+
+    @Query("SELECT a.updatedAt FROM Author a WHERE a.id = :id")
+    Optional<Instant> findUpdatedAtById(@Param("id") long id);
+
+    @Query("SELECT new org.digilib.library.models.dto.CollectionVersion(COUNT(a), MAX(a.updatedAt)) FROM Author a")
+    CollectionVersion findCollectionVersion();
 }
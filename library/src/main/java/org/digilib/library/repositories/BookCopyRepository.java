@@ -3,10 +3,19 @@ package org.digilib.library.repositories;
 
 import org.digilib.library.models.BookCopy;
 import org.digilib.library.models.Library;
+import org.digilib.library.models.Status;
+import org.digilib.library.models.dto.book.BookCopyData;
+import org.digilib.library.models.dto.book.LibraryBookData;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
@@ -15,7 +24,26 @@ import java.util.Optional;
 
 public interface BookCopyRepository extends JpaRepository<BookCopy,Long> {
 
-    Page<BookCopy> findAllByLibrary(Library library, Pageable pageable);
+    /**
+     * Selects a copy with the columns of its book in one row, see the flat {@link BookCopyData} constructor.
+     */
+    String BOOK_COPY_DATA = """
+            SELECT new org.digilib.library.models.dto.book.BookCopyData(
+                bc.id, bc.barcode, bc.status,
+                b.isbn, b.title, b.summary, b.imageUrl, b.pageCount, b.publicationDate, b.language, b.edition)
+            FROM BookCopy bc JOIN bc.book b
+            """;
+
+    @Query(
+            value = BOOK_COPY_DATA + "WHERE bc.library = :library",
+            countQuery = "SELECT COUNT(bc) FROM BookCopy bc WHERE bc.library = :library"
+    )
+    Page<BookCopyData> findAllByLibrary(@Param("library") Library library, Pageable pageable);
+
+    @Query(BOOK_COPY_DATA + "WHERE bc.library = :library")
+    Slice<BookCopyData> findSliceByLibrary(@Param("library") Library library, Pageable pageable);
+
+    Window<BookCopy> findAllByLibrary(Library library, ScrollPosition position, Sort sort, Limit limit);
 
     Optional<BookCopy> findBookCopyByIdAndLibrary(long id, Library library);
 
@@ -28,10 +56,71 @@ public interface BookCopyRepository extends JpaRepository<BookCopy,Long> {
     Optional<String> findMaxBarcodeByLibraryId(@Param("libraryId") long libraryId);
 
     @Query("""
-        select bc
+        select new org.digilib.library.models.dto.book.LibraryBookData(
+            bc.id, bc.barcode, bc.status, l.id, l.name, l.address)
         from BookCopy bc
-        join fetch bc.library l
+        join bc.library l
         where bc.book.isbn = :isbn
         """)
-    List<BookCopy> findByBookIsbnWithLibrary(@Param("isbn") String isbn);
+    List<LibraryBookData> findByBookIsbnWithLibrary(@Param("isbn") String isbn);
+
+    /**
+     * Locks one available copy of a book, skipping copies other transactions have locked,
+     * so concurrent claims for the same title each get a different copy instead of queueing.
+     * @param isbn normalized isbn of the book.
+     * @param preferredLibraryIds comma separated library ids tried first, in order; empty for no preference.
+     * @return id of the locked copy, empty if every available copy is taken or locked.
+     */
+    @Query(value = """
+            SELECT id FROM book_copies \
+            WHERE book_isbn = :isbn AND status = 'AVAILABLE' \
+            ORDER BY COALESCE(array_position(CAST(string_to_array(:preferred, ',') AS bigint[]), library_id), 2147483647), id \
+            LIMIT 1 \
+            FOR UPDATE SKIP LOCKED
+            """,
+            nativeQuery = true)
+    Optional<Long> lockAvailableCopy(@Param("isbn") String isbn, @Param("preferred") String preferredLibraryIds);
+
+    /**
+     * Moves a copy to another status only if it still has the expected one, as a single statement.
+     * Concurrent callers are serialized by the row lock of the update, and only the first one matches.
+     * @return 1 if the copy was updated, 0 if it does not exist or its status changed meanwhile.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE BookCopy bc SET bc.status = :to WHERE bc.id = :id AND bc.status = :from")
+    int updateStatusIf(@Param("id") long id, @Param("from") Status from, @Param("to") Status to);
+
+    /**
+     * Sums the copy counts of a book per library from {@code book_availability_shards}, which a trigger on
+     * {@code book_copies} keeps in step with every insert, status change and delete in the same transaction.
+     * Costs one primary key range scan over at most eight shard rows per library, no matter how many copies the book has.
+     * @param isbn normalized isbn of the book.
+     */
+    @Query(value = """
+            SELECT a.library_id AS "libraryId", l.name AS "libraryName", \
+                   sum(a.available) AS "available", sum(a.reserved) AS "reserved", \
+                   sum(a.checked_out) AS "checkedOut", sum(a.lost) AS "lost" \
+            FROM book_availability_shards a \
+            JOIN libraries l ON l.id = a.library_id \
+            WHERE a.book_isbn = :isbn \
+            GROUP BY a.library_id, l.name \
+            ORDER BY a.library_id
+            """,
+            nativeQuery = true)
+    List<AvailabilityCounts> findAvailability(@Param("isbn") String isbn);
+
+    interface AvailabilityCounts {
+
+        long getLibraryId();
+
+        String getLibraryName();
+
+        int getAvailable();
+
+        int getReserved();
+
+        int getCheckedOut();
+
+        int getLost();
+    }
 }
@@ -1,24 +1,171 @@
 package org.digilib.library.repositories;
 
-import lombok.NonNull;
+import jakarta.persistence.QueryHint;
 import org.digilib.library.models.Book;
 import org.digilib.library.models.Genre;
+import org.digilib.library.models.dto.CollectionVersion;
+import org.digilib.library.models.dto.SuggestionData;
+import org.digilib.library.models.dto.book.BookAuthorId;
+import org.digilib.library.models.dto.book.BookData;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.HibernateHints.HINT_CACHE_MODE;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 public interface BookRepository extends JpaRepository<Book, String> {
 
-    Optional<Book> findByIsbn(@NonNull String isbn);
+    /**
+     * Selects the columns of {@link BookData} straight into it, so list pages never load managed books.
+     */
+    String BOOK_DATA = """
+            SELECT new org.digilib.library.models.dto.book.BookData(
+                b.isbn, b.title, b.summary, b.imageUrl, b.pageCount, b.publicationDate, b.language, b.edition)
+            FROM Book b
+            """;
+
+    @Query("SELECT b.isbn FROM Book b WHERE b.isbn IN :isbns")
+    Set<String> findExistingIsbns(@Param("isbns") Collection<String> isbns);
 
     List<Book> findAllByIsbnIn(Collection<String> isbns);
 
-    Page<Book> findAllByGenre(Genre genre, Pageable pageable);
+    /**
+     * Reads one page without counting the books, the total is taken from {@link #findCollectionVersion()}.
+     */
+    @Query(BOOK_DATA)
+    List<BookData> findAllData(Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    @Query(value = BOOK_DATA + "WHERE b.genre = :genre", countQuery = "SELECT COUNT(b) FROM Book b WHERE b.genre = :genre")
+    Page<BookData> findAllByGenre(@Param("genre") Genre genre, Pageable pageable);
+
+    @Query(
+            value = BOOK_DATA + "JOIN b.authors a WHERE a.id = :authorId",
+            countQuery = "SELECT COUNT(b) FROM Book b JOIN b.authors a WHERE a.id = :authorId"
+    )
+    Page<BookData> findAllByAuthors_Id(@Param("authorId") long authorId, Pageable pageable);
+
+    @Query(BOOK_DATA)
+    Slice<BookData> findSliceBy(Pageable pageable);
+
+    @Query(BOOK_DATA + "WHERE b.genre = :genre")
+    Slice<BookData> findSliceByGenre(@Param("genre") Genre genre, Pageable pageable);
+
+    @Query(BOOK_DATA + "JOIN b.authors a WHERE a.id = :authorId")
+    Slice<BookData> findSliceByAuthors_Id(@Param("authorId") long authorId, Pageable pageable);
+
+    /**
+     * Planner row estimate of the books table, kept current by autovacuum/ANALYZE.
+     * @return approximate row count, or a negative value if the table was never analyzed.
+     */
+    @Query(value = "SELECT CAST(reltuples AS bigint) FROM pg_class WHERE oid = to_regclass('books')", nativeQuery = true)
+    long estimateCount();
+
+    /**
+     * Full-text search over book titles, summaries and author names, using the generated
+     * {@code search_vector} columns and their GIN indexes. A book matched through several authors adds up their ranks.
+     * Results are ordered by rank, then isbn, and start after the given keyset.
+     * @param query web search syntax, e.g. {@code "clean code" -java}.
+     * @param afterRank rank of the last hit of the previous window, {@code Infinity} for the first one.
+     * @param afterIsbn isbn of the last hit of the previous window, empty for the first one.
+     * @param limit maximum number of hits.
+     */
+    @Query(value = """
+            WITH q AS (SELECT websearch_to_tsquery('simple', :query) AS query),
+            hits AS (
+                SELECT b.isbn AS isbn, ts_rank(b.search_vector, q.query) AS rank
+                FROM books b CROSS JOIN q
+                WHERE b.search_vector @@ q.query
+                UNION ALL
+                SELECT ba.book_id, ts_rank(a.search_vector, q.query)
+                FROM authors a
+                JOIN book_authors ba ON ba.author_id = a.id
+                CROSS JOIN q
+                WHERE a.search_vector @@ q.query
+            ),
+            ranked AS (
+                SELECT isbn, CAST(SUM(rank) AS real) AS rank FROM hits GROUP BY isbn
+            )
+            SELECT isbn, rank FROM ranked
+            WHERE rank < :afterRank OR (rank = :afterRank AND isbn > :afterIsbn)
+            ORDER BY rank DESC, isbn
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<SearchHit> search(@Param("query") String query,
+                           @Param("afterRank") float afterRank,
+                           @Param("afterIsbn") String afterIsbn,
+                           @Param("limit") int limit);
+
+    @Query("SELECT new org.digilib.library.models.dto.SuggestionData('book', b.isbn, b.title) FROM Book b")
+    List<SuggestionData> findAllSuggestions();
+
+    @Query("SELECT b.updatedAt FROM Book b WHERE b.isbn = :isbn")
+    Optional<Instant> findUpdatedAtByIsbn(@Param("isbn") String isbn);
+
+    @Query("SELECT new org.digilib.library.models.dto.CollectionVersion(COUNT(b), MAX(b.updatedAt)) FROM Book b")
+    CollectionVersion findCollectionVersion();
+
+    interface SearchHit {
+
+        String getIsbn();
+
+        float getRank();
+    }
+
+    Window<Book> findAllBy(ScrollPosition position, Sort sort, Limit limit);
+
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    Window<Book> findAllByGenre(Genre genre, ScrollPosition position, Sort sort, Limit limit);
+
+    Window<Book> findAllByAuthors_Id(long authorId, ScrollPosition position, Sort sort, Limit limit);
+
+    /**
+     * Streams every book through a server side cursor, fetching 500 rows per round trip.
+     * Bypasses the second-level cache, so a full scan does not evict the books that list pages keep hitting.
+     * Must be consumed inside a transaction and closed afterwards.
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HINT_CACHE_MODE, value = "IGNORE")
+    })
+    @Query("SELECT b FROM Book b ORDER BY b.isbn")
+    Stream<Book> streamAll();
+
+    /**
+     * Same as {@link #streamAll()} with the genre of each book fetched in the same row.
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HINT_CACHE_MODE, value = "IGNORE")
+    })
+    @Query("SELECT b FROM Book b LEFT JOIN FETCH b.genre ORDER BY b.isbn")
+    Stream<Book> streamAllWithGenre();
 
-    Page<Book> findAllByAuthors_Id(long authorId, Pageable pageable);
+    @Query("""
+            SELECT new org.digilib.library.models.dto.book.BookAuthorId(b.isbn, a.id)
+            FROM Book b JOIN b.authors a
+            WHERE b.isbn IN :isbns
+            """)
+    List<BookAuthorId> findAuthorIdsByIsbnIn(@Param("isbns") Collection<String> isbns);
 
 }
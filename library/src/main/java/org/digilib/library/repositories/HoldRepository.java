@@ -0,0 +1,51 @@
+package org.digilib.library.repositories;
+
+import org.digilib.library.models.Hold;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Optional;
+
+public interface HoldRepository extends JpaRepository<Hold, Long> {
+
+    Optional<Hold> findByBook_IsbnAndUser_Id(String isbn, long userId);
+
+    /**
+     * Adds a hold unless the user already has one for the book. A concurrent insert of the same hold waits on the
+     * unique index for the first one to commit and then does nothing, so both callers end up with that hold.
+     * @return 1 if the hold was added, 0 if it already existed.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = """
+            INSERT INTO holds (book_isbn, user_id, created_at) VALUES (:isbn, :userId, now()) \
+            ON CONFLICT (book_isbn, user_id) DO NOTHING
+            """,
+            nativeQuery = true)
+    int insertIfAbsent(@Param("isbn") String isbn, @Param("userId") long userId);
+
+    /**
+     * Locks the oldest hold of a book, skipping holds locked by a concurrent allocation.
+     */
+    @Query(value = """
+            SELECT * FROM holds \
+            WHERE book_isbn = :isbn \
+            ORDER BY created_at, id \
+            LIMIT 1 \
+            FOR UPDATE SKIP LOCKED
+            """,
+            nativeQuery = true)
+    Optional<Hold> lockNextHold(@Param("isbn") String isbn);
+
+    /**
+     * @return 1-based position in the queue of a book of the hold created at {@code createdAt} with {@code id}.
+     */
+    @Query("""
+            SELECT COUNT(h) FROM Hold h
+            WHERE h.book.isbn = :isbn
+            AND (h.createdAt < :createdAt OR (h.createdAt = :createdAt AND h.id <= :id))
+            """)
+    long findPosition(@Param("isbn") String isbn, @Param("createdAt") Instant createdAt, @Param("id") long id);
+}
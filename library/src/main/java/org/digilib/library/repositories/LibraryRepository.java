@@ -1,9 +1,14 @@
 package org.digilib.library.repositories;
 
 import org.digilib.library.models.Library;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 public interface LibraryRepository extends JpaRepository<Library, Long> {
 
+    Window<Library> findAllBy(ScrollPosition position, Sort sort, Limit limit);
 
 }
@@ -1,10 +1,85 @@
 package org.digilib.library.repositories;
 
 import org.digilib.library.models.Reservation;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Optional;
 
 public interface ReservationRepository extends JpaRepository<Reservation, Long> {
+
+    /**
+     * Fetches the book of each reservation in the same query, as every listing serializes it.
+     */
+    @EntityGraph(attributePaths = "book")
     Page<Reservation> findAllByUserId(long userId, Pageable pageable);
+
+    @EntityGraph(attributePaths = "book")
+    Slice<Reservation> findSliceByUserId(long userId, Pageable pageable);
+
+    @EntityGraph(attributePaths = "book")
+    Window<Reservation> findAllByUserId(long userId, ScrollPosition position, Sort sort, Limit limit);
+
+    boolean existsByBook_IsbnAndUser_Id(String isbn, long userId);
+
+    /**
+     * Deletes up to {@code batchSize} expired reservations, oldest first, and makes their copies available again
+     * if they are still reserved, in one statement. Rows locked by another sweeper are skipped.
+     * The ids and isbns of the released copies are returned so they can be announced and waiting holds served.
+     */
+    @Query(value = """
+            WITH expired AS (
+                SELECT id FROM reservations
+                WHERE expires_at <= :now
+                ORDER BY expires_at
+                LIMIT :batchSize
+                FOR UPDATE SKIP LOCKED
+            ),
+            deleted AS (
+                DELETE FROM reservations r USING expired e
+                WHERE r.id = e.id
+                RETURNING r.barcode
+            ),
+            released AS (
+                UPDATE book_copies bc SET status = 'AVAILABLE'
+                FROM deleted d
+                WHERE bc.barcode = d.barcode AND bc.status = 'RESERVED'
+                RETURNING bc.id, bc.book_isbn
+            )
+            SELECT (SELECT COUNT(*) FROM deleted) AS expired,
+                   (SELECT COUNT(*) FROM released) AS released,
+                   (SELECT string_agg(CAST(id AS text), ',') FROM released) AS "releasedCopyIds",
+                   (SELECT string_agg(DISTINCT book_isbn, ',') FROM released) AS "releasedIsbns"
+            """, nativeQuery = true)
+    ExpiredBatch expireBatch(@Param("now") Instant now, @Param("batchSize") int batchSize);
+
+    @Query("SELECT MIN(r.expiresAt) FROM Reservation r WHERE r.expiresAt <= :now")
+    Optional<Instant> findOldestExpiry(@Param("now") Instant now);
+
+    interface ExpiredBatch {
+
+        long getExpired();
+
+        long getReleased();
+
+        /**
+         * @return comma separated ids of the released copies, null if none was released.
+         */
+        String getReleasedCopyIds();
+
+        /**
+         * @return comma separated isbns of the released copies, null if none was released.
+         */
+        String getReleasedIsbns();
+    }
 }
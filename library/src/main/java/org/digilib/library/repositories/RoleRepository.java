@@ -1,7 +1,11 @@
 package org.digilib.library.repositories;
 
+import org.digilib.library.configs.CacheConfig;
 import org.digilib.library.models.Role;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
@@ -9,5 +13,11 @@ import java.util.Optional;
 public interface RoleRepository extends JpaRepository<Role, Long> {
     Optional<Role> findByName(String name);
 
-    List<Role> findAllByNameIn(List<String> names);
+    /**
+     * Ids of the named roles, cached since roles only change with a deployment.
+     * Turn them into roles with {@link #getReferenceById}, which does not query.
+     */
+    @Cacheable(CacheConfig.ROLE_IDS)
+    @Query("SELECT r.id FROM Role r WHERE r.name IN :names")
+    List<Long> findIdsByNameIn(@Param("names") List<String> names);
 }
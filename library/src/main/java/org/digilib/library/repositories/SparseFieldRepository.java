@@ -0,0 +1,210 @@
+package org.digilib.library.repositories;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.SingularAttribute;
+import lombok.RequiredArgsConstructor;
+import org.digilib.library.errors.exceptions.InvalidRequestParamException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.stereotype.Repository;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.RecordComponent;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * Pages entities reading only some of their columns, for the {@code fields} parameter of list endpoints.
+ * <p>
+ * Rows are read into a record view whose components are named after the entity fields. The id is always selected,
+ * components that were not requested are left null, so unrequested columns are neither read nor serialized.
+ */
+@Repository
+@RequiredArgsConstructor
+public class SparseFieldRepository {
+
+    private static final String FIELDS_PARAM = "fields";
+
+    private final EntityManager entityManager;
+
+    /**
+     * @param entity entity to page.
+     * @param view record with components named after fields of the entity.
+     * @param fields requested components of the view.
+     * @throws InvalidRequestParamException if a field is not a component of the view.
+     */
+    public <T extends Record> Page<T> findAll(Class<?> entity, Class<T> view, Set<String> fields, Pageable pageable) {
+        return findAll(entity, view, fields, Filter.NONE, pageable);
+    }
+
+    /**
+     * @param filter restricts the rows, counted with the same filter.
+     * @see #findAll(Class, Class, Set, Pageable)
+     */
+    public <T extends Record> Page<T> findAll(Class<?> entity, Class<T> view, Set<String> fields, Filter filter,
+                                              Pageable pageable) {
+        String name = entityManager.getMetamodel().entity(entity).getName();
+        return findAll(entity, view, fields, filter, pageable, () -> filter.bind(entityManager
+                        .createQuery("SELECT COUNT(e) FROM " + name + " e " + filter.clause(), Long.class))
+                .getSingleResult());
+    }
+
+    /**
+     * @param total number of rows, only asked for when it cannot be told from the page itself.
+     * @see #findAll(Class, Class, Set, Pageable)
+     */
+    public <T extends Record> Page<T> findAll(Class<?> entity, Class<T> view, Set<String> fields, Pageable pageable,
+                                              LongSupplier total) {
+        return findAll(entity, view, fields, Filter.NONE, pageable, total);
+    }
+
+    /**
+     * Reads one row more than the page size instead of counting, to tell whether a next slice exists.
+     * @see #findAll(Class, Class, Set, Filter, Pageable)
+     */
+    public <T extends Record> Slice<T> findSlice(Class<?> entity, Class<T> view, Set<String> fields, Filter filter,
+                                                 Pageable pageable) {
+        List<T> content = read(entity, view, fields, filter, pageable, 1);
+        if (pageable.isUnpaged()) {
+            return new SliceImpl<>(content, pageable, false);
+        }
+
+        boolean hasNext = content.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? content.subList(0, pageable.getPageSize()) : content, pageable, hasNext);
+    }
+
+    private <T extends Record> Page<T> findAll(Class<?> entity, Class<T> view, Set<String> fields, Filter filter,
+                                               Pageable pageable, LongSupplier total) {
+        return PageableExecutionUtils.getPage(read(entity, view, fields, filter, pageable, 0), pageable, total);
+    }
+
+    /**
+     * @param extra rows to read past the end of the page.
+     */
+    private <T extends Record> List<T> read(Class<?> entity, Class<T> view, Set<String> fields, Filter filter,
+                                            Pageable pageable, int extra) {
+        EntityType<?> type = entityManager.getMetamodel().entity(entity);
+        RecordComponent[] components = view.getRecordComponents();
+        List<String> selected = selection(type, components, fields);
+
+        String from = " FROM " + type.getName() + " e " + filter.clause();
+        TypedQuery<Tuple> query = filter.bind(entityManager.createQuery(
+                selected.stream().map(field -> "e." + field).collect(Collectors.joining(", ", "SELECT ", from))
+                        + orderBy(type, pageable.getSort()),
+                Tuple.class
+        ));
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize() + extra);
+        }
+
+        Constructor<T> constructor = canonicalConstructor(view, components);
+        return query.getResultList().stream()
+                .map(tuple -> instantiate(constructor, components, selected, tuple))
+                .toList();
+    }
+
+    /**
+     * Joins and conditions appended to {@code FROM Entity e}, e.g. {@code WHERE e.genre.id = :genreId}.
+     * @param clause JPQL referring to the listed entity as {@code e}.
+     * @param params values of the named parameters of the clause.
+     */
+    public record Filter(String clause, Map<String, Object> params) {
+
+        public static final Filter NONE = new Filter("", Map.of());
+
+        public static Filter of(String clause, String param, Object value) {
+            return new Filter(clause, Map.of(param, value));
+        }
+
+        private <Q extends Query> Q bind(Q query) {
+            params.forEach(query::setParameter);
+            return query;
+        }
+    }
+
+    /**
+     * @return names of the components to select, in component order.
+     */
+    private static List<String> selection(EntityType<?> type, RecordComponent[] components, Set<String> fields) {
+        Set<String> names = Arrays.stream(components)
+                .map(RecordComponent::getName)
+                .collect(Collectors.toSet());
+
+        List<String> unknown = fields.stream()
+                .filter(field -> !names.contains(field))
+                .toList();
+        if (!unknown.isEmpty()) {
+            throw new InvalidRequestParamException(
+                    "The supplied fields are not present in the listed resource",
+                    FIELDS_PARAM,
+                    unknown
+            );
+        }
+
+        Set<String> ids = type.getSingularAttributes().stream()
+                .filter(SingularAttribute::isId)
+                .map(Attribute::getName)
+                .collect(Collectors.toSet());
+
+        return Arrays.stream(components)
+                .map(RecordComponent::getName)
+                .filter(name -> ids.contains(name) || fields.contains(name))
+                .toList();
+    }
+
+    private static String orderBy(EntityType<?> type, Sort sort) {
+        if (sort.isUnsorted()) {
+            return "";
+        }
+
+        return sort.stream()
+                .map(order -> "e." + type.getAttribute(order.getProperty()).getName()
+                        + (order.isAscending() ? " ASC" : " DESC"))
+                .collect(Collectors.joining(", ", " ORDER BY ", ""));
+    }
+
+    private static <T> Constructor<T> canonicalConstructor(Class<T> view, RecordComponent[] components) {
+        try {
+            return view.getDeclaredConstructor(Arrays.stream(components)
+                    .map(RecordComponent::getType)
+                    .toArray(Class<?>[]::new));
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("Record " + view.getSimpleName() + " has no canonical constructor", e);
+        }
+    }
+
+    private static <T> T instantiate(Constructor<T> constructor, RecordComponent[] components,
+                                     List<String> selected, Tuple tuple) {
+        Object[] args = new Object[components.length];
+        for (int i = 0; i < components.length; i++) {
+            int index = selected.indexOf(components[i].getName());
+            Class<?> componentType = components[i].getType();
+            if (index >= 0) {
+                args[i] = tuple.get(index);
+            } else if (componentType.isPrimitive()) {
+                args[i] = Array.get(Array.newInstance(componentType, 1), 0);
+            }
+        }
+
+        try {
+            return constructor.newInstance(args);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Could not create " + constructor.getDeclaringClass().getSimpleName(), e);
+        }
+    }
+}
@@ -2,13 +2,18 @@ package org.digilib.library.repositories;
 
 import jakarta.transaction.Transactional;
 import org.digilib.library.models.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
@@ -17,6 +22,11 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     Page<User> findAllByIdNot(long id, Pageable pageable);
 
+    Window<User> findAllByIdNot(long id, ScrollPosition position, Sort sort, Limit limit);
+
+    @Query("SELECT u.id FROM User u WHERE u.isDisabled = true")
+    List<Long> findDisabledUserIds();
+
     @Modifying
     @Transactional
     @Query("UPDATE User u SET u.isDisabled = :disabled WHERE u.id = :id")
@@ -8,6 +8,7 @@ import org.digilib.library.models.dto.auth.AuthData;
 import org.digilib.library.models.dto.auth.LoginDto;
 import org.digilib.library.models.dto.user.UserData;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.DisabledException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 
@@ -47,6 +48,10 @@ public class AuthService {
         String username = jwtService.extractFromToken(refreshToken, Claims::getSubject);
         User principal = (User) userDetailsService.loadUserByUsername(username);
 
+        if (!principal.isEnabled()) {
+            throw new DisabledException("User account is disabled");
+        }
+
         String access = jwtService.generateAccessToken(principal);
         String refresh = jwtService.generateRefreshToken(principal.getUsername());
 
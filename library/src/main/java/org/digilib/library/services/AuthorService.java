@@ -7,7 +7,10 @@ import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import org.digilib.library.errors.exceptions.ResourceNotFoundException;
 import org.digilib.library.models.Author;
+import org.digilib.library.models.Book;
 import org.digilib.library.models.Genre;
+import org.digilib.library.models.dto.CollectionVersion;
+import org.digilib.library.models.dto.SuggestionData;
 import org.digilib.library.models.dto.author.AuthorCreateView;
 import org.digilib.library.models.dto.author.AuthorData;
 import org.digilib.library.models.dto.author.AuthorUpdateView;
@@ -15,11 +18,21 @@ import org.digilib.library.models.dto.book.BookData;
 import org.digilib.library.repositories.AuthorRepository;
 import org.digilib.library.repositories.BookRepository;
 import org.digilib.library.repositories.GenreRepository;
+import org.digilib.library.repositories.SparseFieldRepository;
+import org.digilib.library.repositories.SparseFieldRepository.Filter;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
 import java.time.LocalDate;
+import java.util.Optional;
 import java.util.Set;
 
 import static org.digilib.library.utils.Params.setIfPresent;
@@ -36,8 +49,23 @@ public class AuthorService {
 
     private final Validator validator;
 
-    public Page<AuthorData> findAll(Pageable pageable) {
-        return authorRepository.findAll(pageable)
+    private final TypeaheadIndex typeaheadIndex;
+
+    private final SparseFieldRepository sparseFieldRepository;
+
+    /**
+     * @param fields components of {@link AuthorData} to read, every one of them when empty.
+     * @param total number of authors, as read for the etag by {@link #findCollectionVersion()}.
+     */
+    public Page<AuthorData> findAll(Pageable pageable, Set<String> fields, long total) {
+        if (fields.isEmpty()) {
+            return PageableExecutionUtils.getPage(authorRepository.findAllData(pageable), pageable, () -> total);
+        }
+        return sparseFieldRepository.findAll(Author.class, AuthorData.class, fields, pageable, () -> total);
+    }
+
+    public Window<AuthorData> findAll(ScrollPosition position, Sort sort, Limit limit) {
+        return authorRepository.findAllBy(position, sort, limit)
                 .map(AuthorData::wrapAuthor);
     }
 
@@ -48,11 +76,52 @@ public class AuthorService {
                 .orElseThrow(() -> ResourceNotFoundException.of(Author.class, authorId));
     }
 
-    public Page<BookData> findBooksByAuthor(long authorId,  Pageable pageable) {
+    /**
+     * @return last modification of the author, empty if they do not exist or predate the tracking.
+     */
+    public Optional<Instant> findVersion(long authorId) {
+        return authorRepository.findUpdatedAtById(authorId);
+    }
+
+    public CollectionVersion findCollectionVersion() {
+        return authorRepository.findCollectionVersion();
+    }
+
+    /**
+     * @param fields components of {@link BookData} to read, every one of them when empty.
+     */
+    public Page<BookData> findBooksByAuthor(long authorId, Pageable pageable, Set<String> fields) {
+        Author author = authorRepository.findById(authorId)
+                .orElseThrow(() -> ResourceNotFoundException.of(Author.class, authorId));
+
+        if (fields.isEmpty()) {
+            return bookRepository.findAllByAuthors_Id(author.getId(), pageable);
+        }
+        return sparseFieldRepository.findAll(Book.class, BookData.class, fields, byAuthor(author), pageable);
+    }
+
+    /**
+     * @param fields components of {@link BookData} to read, every one of them when empty.
+     */
+    public Slice<BookData> findBooksSliceByAuthor(long authorId, Pageable pageable, Set<String> fields) {
+        Author author = authorRepository.findById(authorId)
+                .orElseThrow(() -> ResourceNotFoundException.of(Author.class, authorId));
+
+        if (fields.isEmpty()) {
+            return bookRepository.findSliceByAuthors_Id(author.getId(), pageable);
+        }
+        return sparseFieldRepository.findSlice(Book.class, BookData.class, fields, byAuthor(author), pageable);
+    }
+
+    private static Filter byAuthor(Author author) {
+        return Filter.of("JOIN e.authors a WHERE a.id = :authorId", "authorId", author.getId());
+    }
+
+    public Window<BookData> findBooksByAuthor(long authorId, ScrollPosition position, Sort sort, Limit limit) {
         Author author = authorRepository.findById(authorId)
                 .orElseThrow(() -> ResourceNotFoundException.of(Author.class, authorId));
 
-        return bookRepository.findAllByAuthors_Id(author.getId(), pageable)
+        return bookRepository.findAllByAuthors_Id(author.getId(), position, sort, limit)
                 .map(BookData::wrapBook);
     }
 
@@ -61,7 +130,7 @@ public class AuthorService {
                 .orElseThrow(() -> ResourceNotFoundException.of(Author.class, authorId));
 
         authorRepository.delete(author);
-
+        typeaheadIndex.remove(SuggestionData.AUTHOR, String.valueOf(authorId));
     }
 
     public AuthorData findAuthorByGenre(long authorId, Genre genre) {
@@ -83,6 +152,7 @@ public class AuthorService {
                 .build();
 
         authorRepository.save(author);
+        typeaheadIndex.put(SuggestionData.ofAuthor(author));
         return AuthorData.wrapAuthor(author);
     }
 
@@ -107,6 +177,7 @@ public class AuthorService {
 
 
         Author saved = authorRepository.save(author);
+        typeaheadIndex.put(SuggestionData.ofAuthor(saved));
 
         return AuthorData.wrapAuthor(saved);
     }
@@ -4,6 +4,8 @@ import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.digilib.library.errors.exceptions.ResourceNotFoundException;
 import org.digilib.library.models.*;
+import org.digilib.library.models.dto.book.BookAvailabilityData;
+import org.digilib.library.models.dto.book.LibraryAvailabilityData;
 import org.digilib.library.models.dto.book.LibraryBookData;
 import org.digilib.library.repositories.BookCopyRepository;
 import org.digilib.library.repositories.ReservationRepository;
@@ -11,6 +13,7 @@ import org.digilib.library.repositories.UserRepository;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -22,29 +25,96 @@ public class BookCopyService {
     private final ReservationRepository reservationRepository;
     private final UserRepository userRepository;
 
+    private final CopyEventBroadcaster copyEventBroadcaster;
+
     public List<LibraryBookData> findCopiesForBook(String rawIsbn) {
         String normalized = rawIsbn.replaceAll("[-\\s]", "");
         Book book = bookService.findByIsbn(normalized)
                 .orElseThrow(() -> ResourceNotFoundException.of(Book.class, rawIsbn));
 
-        return bookCopyRepository.findByBookIsbnWithLibrary(book.getIsbn())
+        return bookCopyRepository.findByBookIsbnWithLibrary(book.getIsbn());
+    }
+
+    /**
+     * Counts the copies of a book per status and library from the maintained availability summary,
+     * without loading the copies.
+     */
+    public BookAvailabilityData findAvailability(String rawIsbn) {
+        String isbn = rawIsbn.replaceAll("[-\\s]", "");
+
+        List<LibraryAvailabilityData> libraries = bookCopyRepository.findAvailability(isbn)
                 .stream()
-                .map(LibraryBookData::wrap)
+                .map(LibraryAvailabilityData::wrap)
                 .toList();
+
+        if (libraries.isEmpty() && bookService.findByIsbn(isbn).isEmpty()) {
+            throw ResourceNotFoundException.of(Book.class, rawIsbn);
+        }
+
+        return BookAvailabilityData.of(isbn, libraries);
     }
 
+    /**
+     * Reserves a copy for a user. The availability check and the status change are one conditional update,
+     * so when many users race for the same copy exactly one of them gets it.
+     * <p>
+     * Does not consult the hold queue: every path that makes a copy available hands it to the waiting holds in the
+     * same transaction, see {@link HoldService#allocate(String)}, so no committed copy is available while holds wait.
+     * @throws IllegalStateException if the copy is not available.
+     */
     @Transactional
     public LibraryBookData reserveCopy(long copyId, String email) {
-        BookCopy copy = bookCopyRepository.findById(copyId)
-                .orElseThrow(() -> ResourceNotFoundException.of(BookCopy.class, copyId));
-
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> ResourceNotFoundException.of(User.class, email));
 
-        if (copy.getStatus() != Status.AVAILABLE) {
+        if (bookCopyRepository.updateStatusIf(copyId, Status.AVAILABLE, Status.RESERVED) == 0) {
+            if (!bookCopyRepository.existsById(copyId)) {
+                throw ResourceNotFoundException.of(BookCopy.class, copyId);
+            }
             throw new IllegalStateException("Copy is not available for reservation.");
         }
 
+        return reserve(copyId, user);
+    }
+
+    /**
+     * Reserves any available copy of a book, trying the preferred libraries first.
+     * The copy is picked with {@code FOR UPDATE SKIP LOCKED}, so concurrent users of a popular title
+     * are handed different copies in one request instead of retrying specific ones.
+     * Like {@link #reserveCopy(long, String)} it cannot jump the hold queue, available copies have no holds waiting.
+     * @param rawIsbn isbn, hyphens and spaces allowed.
+     * @param preferredLibraryIds libraries to take the copy from if possible, most preferred first.
+     * @param email email of the reserving user.
+     * @throws IllegalStateException if no copy is available.
+     */
+    @Transactional
+    public LibraryBookData reserveAnyCopy(String rawIsbn, List<Long> preferredLibraryIds, String email) {
+        String isbn = rawIsbn.replaceAll("[-\\s]", "");
+
+        User user = userRepository.findByEmail(email)
+                .orElseThrow(() -> ResourceNotFoundException.of(User.class, email));
+
+        String preferred = preferredLibraryIds.stream()
+                .map(String::valueOf)
+                .collect(Collectors.joining(","));
+
+        long copyId = bookCopyRepository.lockAvailableCopy(isbn, preferred)
+                .orElseThrow(() -> bookService.findByIsbn(isbn).isEmpty()
+                        ? ResourceNotFoundException.of(Book.class, rawIsbn)
+                        : new IllegalStateException("No copy of the book is available for reservation."));
+
+        bookCopyRepository.updateStatusIf(copyId, Status.AVAILABLE, Status.RESERVED);
+
+        return reserve(copyId, user);
+    }
+
+    /**
+     * Records the reservation of a copy the caller has already marked {@code RESERVED} in the current transaction.
+     */
+    LibraryBookData reserve(long copyId, User user) {
+        BookCopy copy = bookCopyRepository.findById(copyId)
+                .orElseThrow(() -> ResourceNotFoundException.of(BookCopy.class, copyId));
+        // the copy may have been loaded before the conditional update, keep it in line with the row
         copy.setStatus(Status.RESERVED);
 
         Reservation reservation = Reservation.builder()
@@ -53,6 +123,7 @@ public class BookCopyService {
                 .barcode(copy.getBarcode())
                 .build();
         reservationRepository.save(reservation);
+        copyEventBroadcaster.statusChanged(copy);
 
         return LibraryBookData.wrap(copy);
     }
@@ -0,0 +1,99 @@
+package org.digilib.library.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.digilib.library.models.Book;
+import org.digilib.library.models.dto.book.BookAuthorId;
+import org.digilib.library.models.dto.book.BookExportData;
+import org.digilib.library.repositories.BookRepository;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Writes the whole book catalog as newline delimited JSON while reading it through a database cursor.
+ * Books are handled in chunks: each chunk is written, flushed and detached before the next one is read,
+ * so memory use does not grow with the size of the catalog.
+ */
+@Service
+@RequiredArgsConstructor
+public class BookExportService {
+
+    private static final int CHUNK_SIZE = 500;
+
+    private static final byte NEW_LINE = '\n';
+
+    private final BookRepository bookRepository;
+
+    private final EntityManager entityManager;
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Streams every book to the output, one JSON document per line, ordered by isbn.
+     * @param out destination, flushed after every chunk and left open.
+     * @param withRelations whether to include the genre and author ids of each book.
+     * @return number of books written.
+     * @throws IOException if writing to the output fails, e.g. the client went away.
+     */
+    @Transactional
+    public long exportTo(OutputStream out, boolean withRelations) throws IOException {
+        long written = 0;
+        List<Book> chunk = new ArrayList<>(CHUNK_SIZE);
+
+        try (Stream<Book> books = withRelations ? bookRepository.streamAllWithGenre() : bookRepository.streamAll()) {
+            Iterator<Book> iterator = books.iterator();
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == CHUNK_SIZE) {
+                    written += writeChunk(chunk, withRelations, out);
+                }
+            }
+            written += writeChunk(chunk, withRelations, out);
+        }
+
+        return written;
+    }
+
+    private int writeChunk(List<Book> chunk, boolean withRelations, OutputStream out) throws IOException {
+        if (chunk.isEmpty()) {
+            return 0;
+        }
+
+        Map<String, List<Long>> authorIds = withRelations ? authorIdsOf(chunk) : Map.of();
+
+        for (Book book : chunk) {
+            BookExportData line = withRelations
+                    ? BookExportData.wrapBook(book, authorIds.getOrDefault(book.getIsbn(), List.of()))
+                    : BookExportData.wrapBook(book);
+
+            out.write(objectMapper.writeValueAsBytes(line));
+            out.write(NEW_LINE);
+            entityManager.detach(book);
+        }
+        out.flush();
+
+        int size = chunk.size();
+        chunk.clear();
+        return size;
+    }
+
+    private Map<String, List<Long>> authorIdsOf(List<Book> chunk) {
+        List<String> isbns = chunk.stream().map(Book::getIsbn).toList();
+
+        return bookRepository.findAuthorIdsByIsbnIn(isbns).stream()
+                .collect(Collectors.groupingBy(
+                        BookAuthorId::isbn,
+                        Collectors.mapping(BookAuthorId::authorId, Collectors.toList())
+                ));
+    }
+}
@@ -0,0 +1,298 @@
+package org.digilib.library.services;
+
+import com.fasterxml.jackson.core.exc.StreamReadException;
+import com.fasterxml.jackson.databind.DatabindException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.digilib.library.models.Author;
+import org.digilib.library.models.Genre;
+import org.digilib.library.models.dto.SuggestionData;
+import org.digilib.library.models.dto.book.BookCreateView;
+import org.digilib.library.models.dto.book.BookImportFailure;
+import org.digilib.library.models.dto.book.BookImportResult;
+import org.digilib.library.repositories.AuthorRepository;
+import org.digilib.library.repositories.BookRepository;
+import org.digilib.library.repositories.GenreRepository;
+import org.hibernate.Cache;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Imports books in bulk from a JSON array, newline delimited JSON or CSV.
+ * <p>
+ * Rows are read as a stream and handled in chunks: genres, authors and existing isbns of a chunk are resolved
+ * with one query each, and the valid rows are written with JDBC batch inserts in a transaction per chunk.
+ * Rows that fail validation are reported back and never abort the rest of the import.
+ * The inserts bypass Hibernate, so cached query results are evicted after every stored chunk.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BookImportService {
+
+    public enum Format { JSON, CSV }
+
+    private static final int CHUNK_SIZE = 1000;
+
+    private static final int MAX_REPORTED_FAILURES = 1000;
+
+    private static final String INSERT_BOOK = """
+            INSERT INTO books (isbn, title, summary, image_url, page_count, publication_date, \
+            language, edition, genre_id, created_at, updated_at) \
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final String INSERT_BOOK_AUTHOR = "INSERT INTO book_authors (book_id, author_id) VALUES (?, ?)";
+
+    /**
+     * CSV uploads need a header row named after the {@link BookCreateView} fields,
+     * with author ids separated by {@code ;}.
+     */
+    private static final CsvSchema CSV_SCHEMA = CsvSchema.emptySchema()
+            .withHeader()
+            .withArrayElementSeparator(";");
+
+    private static final CsvMapper CSV_MAPPER = (CsvMapper) new CsvMapper().findAndRegisterModules();
+
+    private final BookRepository bookRepository;
+
+    private final GenreRepository genreRepository;
+
+    private final AuthorRepository authorRepository;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Validator validator;
+
+    private final ObjectMapper objectMapper;
+
+    private final TypeaheadIndex typeaheadIndex;
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Reads and imports every row of the input.
+     * @param in upload content, read once and not closed.
+     * @param format {@link Format#JSON} accepts both a JSON array and newline delimited documents.
+     * @return counts of received and imported rows with the reasons rows were rejected.
+     * @throws IOException if the input cannot be read.
+     */
+    public BookImportResult importFrom(InputStream in, Format format) throws IOException {
+        ImportReport report = new ImportReport();
+        List<ImportRow> chunk = new ArrayList<>(CHUNK_SIZE);
+
+        try (MappingIterator<BookCreateView> rows = readerFor(format).readValues(in)) {
+            while (rows.hasNextValue()) {
+                long row = report.nextRow();
+                try {
+                    chunk.add(new ImportRow(row, rows.nextValue()));
+                } catch (DatabindException e) {
+                    report.fail(row, null, Map.of("row", e.getOriginalMessage()));
+                }
+
+                if (chunk.size() == CHUNK_SIZE) {
+                    importChunk(chunk, report);
+                }
+            }
+        } catch (StreamReadException e) {
+            report.fail(report.received(), null,
+                    Map.of("row", "Malformed input, remaining rows were skipped: " + e.getOriginalMessage()));
+        }
+        importChunk(chunk, report);
+
+        log.info("Imported {} of {} books", report.imported(), report.received());
+        return report.toResult();
+    }
+
+    private ObjectReader readerFor(Format format) {
+        return switch (format) {
+            case JSON -> objectMapper.readerFor(BookCreateView.class);
+            case CSV -> CSV_MAPPER.readerFor(BookCreateView.class).with(CSV_SCHEMA);
+        };
+    }
+
+    private void importChunk(List<ImportRow> chunk, ImportReport report) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+
+        List<ImportRow> accepted = validate(chunk, report);
+        chunk.clear();
+        if (accepted.isEmpty()) {
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(_ -> insert(accepted));
+            entityManagerFactory.getCache().unwrap(Cache.class).evictQueryRegions();
+            report.imported(accepted.size());
+            accepted.forEach(row -> typeaheadIndex.put(
+                    new SuggestionData(SuggestionData.BOOK, row.isbn(), row.view().title())));
+        } catch (DataAccessException e) {
+            log.warn("Import batch of {} books was rolled back", accepted.size(), e);
+            accepted.forEach(row -> report.fail(row.number(), row.isbn(),
+                    Map.of("isbn", "Batch could not be stored and was rolled back")));
+        }
+    }
+
+    /**
+     * Checks bean constraints, duplicates and referenced genres and authors of a chunk.
+     * @return rows that can be inserted, in input order.
+     */
+    private List<ImportRow> validate(List<ImportRow> chunk, ImportReport report) {
+        Set<Long> genreIds = new HashSet<>();
+        Set<Long> authorIds = new HashSet<>();
+        Set<String> isbns = new HashSet<>();
+        for (ImportRow row : chunk) {
+            BookCreateView view = row.view();
+            if (view.genreId() != null) genreIds.add(view.genreId());
+            if (view.authorIds() != null) view.authorIds().stream().filter(Objects::nonNull).forEach(authorIds::add);
+            if (row.isbn() != null) isbns.add(row.isbn());
+        }
+
+        Set<Long> knownGenres = genreRepository.findAllById(genreIds).stream()
+                .map(Genre::getId)
+                .collect(Collectors.toSet());
+        Set<Long> knownAuthors = authorRepository.findAllById(authorIds).stream()
+                .map(Author::getId)
+                .collect(Collectors.toSet());
+        Set<String> existingIsbns = bookRepository.findExistingIsbns(isbns);
+
+        Set<String> seen = new HashSet<>();
+        List<ImportRow> accepted = new ArrayList<>(chunk.size());
+        for (ImportRow row : chunk) {
+            Map<String, String> errors = new LinkedHashMap<>();
+            for (ConstraintViolation<BookCreateView> violation : validator.validate(row.view())) {
+                errors.putIfAbsent(violation.getPropertyPath().toString(), violation.getMessage());
+            }
+
+            if (!errors.containsKey("isbn")) {
+                if (existingIsbns.contains(row.isbn())) {
+                    errors.put("isbn", "A book with this isbn already exists");
+                } else if (!seen.add(row.isbn())) {
+                    errors.put("isbn", "Isbn is repeated in the upload");
+                }
+            }
+
+            Long genreId = row.view().genreId();
+            if (genreId != null && !knownGenres.contains(genreId)) {
+                errors.put("genreId", "Genre with id '" + genreId + "' not found");
+            }
+
+            if (row.view().authorIds() != null) {
+                List<Long> missing = row.view().authorIds().stream()
+                        .filter(id -> !knownAuthors.contains(id))
+                        .toList();
+                if (!missing.isEmpty()) {
+                    errors.put("authorIds", "Authors with ids " + missing + " not found");
+                }
+            }
+
+            if (errors.isEmpty()) {
+                accepted.add(row);
+            } else {
+                report.fail(row.number(), row.isbn(), errors);
+            }
+        }
+
+        return accepted;
+    }
+
+    private void insert(List<ImportRow> rows) {
+        Timestamp now = Timestamp.from(Instant.now());
+
+        jdbcTemplate.batchUpdate(INSERT_BOOK, rows, rows.size(), (ps, row) -> {
+            BookCreateView view = row.view();
+            ps.setString(1, row.isbn());
+            ps.setString(2, view.title());
+            ps.setString(3, view.summary());
+            ps.setString(4, view.imageUrl());
+            ps.setObject(5, view.pageCount(), Types.INTEGER);
+            ps.setObject(6, view.publicationDate(), Types.DATE);
+            ps.setString(7, view.language());
+            ps.setString(8, view.edition());
+            ps.setLong(9, view.genreId());
+            ps.setTimestamp(10, now);
+            ps.setTimestamp(11, now);
+        });
+
+        List<Object[]> links = new ArrayList<>();
+        for (ImportRow row : rows) {
+            for (Long authorId : Set.copyOf(row.view().authorIds())) {
+                links.add(new Object[]{row.isbn(), authorId});
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERT_BOOK_AUTHOR, links);
+    }
+
+    private record ImportRow(long number, BookCreateView view) {
+
+        /**
+         * @return isbn without hyphens and spaces, the form books are stored with.
+         */
+        String isbn() {
+            return view.isbn() == null ? null : view.isbn().replaceAll("[-\\s]", "");
+        }
+    }
+
+    private static final class ImportReport {
+
+        private long received;
+        private long imported;
+        private long failed;
+        private final List<BookImportFailure> failures = new ArrayList<>();
+
+        long nextRow() {
+            return ++received;
+        }
+
+        long received() {
+            return received;
+        }
+
+        long imported() {
+            return imported;
+        }
+
+        void imported(int count) {
+            imported += count;
+        }
+
+        void fail(long row, String isbn, Map<String, String> errors) {
+            failed++;
+            if (failures.size() < MAX_REPORTED_FAILURES) {
+                failures.add(new BookImportFailure(row, isbn, errors));
+            }
+        }
+
+        BookImportResult toResult() {
+            return new BookImportResult(received, imported, failed, failures);
+        }
+    }
+}
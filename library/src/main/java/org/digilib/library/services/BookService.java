@@ -6,17 +6,35 @@ import org.digilib.library.errors.exceptions.ResourceNotFoundException;
 import org.digilib.library.models.Author;
 import org.digilib.library.models.Book;
 import org.digilib.library.models.Genre;
+import org.digilib.library.models.dto.CollectionVersion;
+import org.digilib.library.models.dto.SuggestionData;
 import org.digilib.library.models.dto.book.BookCreateView;
+import org.digilib.library.models.dto.book.BookData;
 import org.digilib.library.models.dto.book.BookUpdateView;
 import org.digilib.library.repositories.AuthorRepository;
 import org.digilib.library.repositories.BookRepository;
+import org.digilib.library.repositories.BookRepository.SearchHit;
 import org.digilib.library.repositories.GenreRepository;
+import org.digilib.library.repositories.SparseFieldRepository;
+import org.digilib.library.repositories.SparseFieldRepository.Filter;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import static org.digilib.library.utils.Params.setIfPresent;
 
@@ -30,6 +48,10 @@ public  class BookService {
 
     private final AuthorRepository authorRepository;
 
+    private final TypeaheadIndex typeaheadIndex;
+
+    private final SparseFieldRepository sparseFieldRepository;
+
 
     public Book createBookFrom(BookCreateView createData) {
 
@@ -57,7 +79,10 @@ public  class BookService {
                 .authors(authors)
                 .build();
 
-        return bookRepository.save(book);
+        Book saved = bookRepository.save(book);
+        typeaheadIndex.put(SuggestionData.ofBook(saved));
+
+        return saved;
     }
 
     public Book updateBookFrom(Book book, BookUpdateView updateData) {
@@ -82,22 +107,100 @@ public  class BookService {
             book.setAuthors(authors);
         }
 
-        return bookRepository.save(book);
+        Book saved = bookRepository.save(book);
+        typeaheadIndex.put(SuggestionData.ofBook(saved));
+
+        return saved;
+    }
+
+    /**
+     * @param fields components of {@link BookData} to read, every one of them when empty.
+     * @param total number of books, as read for the etag by {@link #findCollectionVersion()}.
+     */
+    public Page<BookData> findAll(Pageable pageable, Set<String> fields, long total) {
+        if (fields.isEmpty()) {
+            return PageableExecutionUtils.getPage(bookRepository.findAllData(pageable), pageable, () -> total);
+        }
+        return sparseFieldRepository.findAll(Book.class, BookData.class, fields, pageable, () -> total);
+    }
+
+    /**
+     * @param fields components of {@link BookData} to read, every one of them when empty.
+     */
+    public Slice<BookData> findSlice(Pageable pageable, Set<String> fields) {
+        if (fields.isEmpty()) {
+            return bookRepository.findSliceBy(pageable);
+        }
+        return sparseFieldRepository.findSlice(Book.class, BookData.class, fields, Filter.NONE, pageable);
+    }
+
+    /**
+     * @return planner estimate of the number of books, null while the table has not been analyzed yet.
+     */
+    public Long estimateCount() {
+        long estimate = bookRepository.estimateCount();
+        return estimate < 0 ? null : estimate;
     }
 
-    public Page<Book> findAll(Pageable pageable) {
-        return bookRepository.findAll(pageable);
+    public Window<Book> findAll(ScrollPosition position, Sort sort, Limit limit) {
+        return bookRepository.findAllBy(position, sort, limit);
     }
 
+    /**
+     * Ranked full-text search, see {@link BookRepository#search}.
+     * @param query search terms.
+     * @param position keyset of {@link org.digilib.library.models.dto.book.BookSearchCursor} keys, or an initial one.
+     * @param limit window size.
+     * @return books ordered by rank, each positioned by its rank and isbn.
+     */
+    public Window<Book> search(String query, ScrollPosition position, Limit limit) {
+        Map<String, Object> keys = position instanceof KeysetScrollPosition keyset ? keyset.getKeys() : Map.of();
+        float afterRank = keys.get("rank") instanceof Float rank ? rank : Float.POSITIVE_INFINITY;
+        String afterIsbn = keys.get("isbn") instanceof String isbn ? isbn : "";
+
+        List<SearchHit> hits = bookRepository.search(query, afterRank, afterIsbn, limit.max() + 1);
+        boolean hasNext = hits.size() > limit.max();
+        if (hasNext) {
+            hits = hits.subList(0, limit.max());
+        }
+
+        Map<String, Book> books = bookRepository.findAllByIsbnIn(hits.stream().map(SearchHit::getIsbn).toList())
+                .stream()
+                .collect(Collectors.toMap(Book::getIsbn, Function.identity()));
+
+        List<SearchHit> found = hits.stream().filter(hit -> books.containsKey(hit.getIsbn())).toList();
+
+        return Window.from(
+                found.stream().map(hit -> books.get(hit.getIsbn())).toList(),
+                i -> ScrollPosition.forward(Map.of("rank", found.get(i).getRank(), "isbn", found.get(i).getIsbn())),
+                hasNext
+        );
+    }
+
+    /**
+     * Looks the book up by its id, so it is served from the second-level cache when that is enabled.
+     */
     public Optional<Book> findByIsbn(String isbn) {
-        return bookRepository.findByIsbn(isbn);
+        return bookRepository.findById(isbn);
+    }
+
+    /**
+     * @return last modification of the book, empty if it does not exist or predates the tracking.
+     */
+    public Optional<Instant> findVersion(String isbn) {
+        return bookRepository.findUpdatedAtByIsbn(isbn);
+    }
+
+    public CollectionVersion findCollectionVersion() {
+        return bookRepository.findCollectionVersion();
     }
 
     @Transactional
     public void deleteByIsbn(String isbn) {
-        Book book = bookRepository.findByIsbn(isbn)
+        Book book = bookRepository.findById(isbn)
                 .orElseThrow(() -> ResourceNotFoundException.of(Book.class, isbn));
 
         bookRepository.delete(book);
+        typeaheadIndex.remove(SuggestionData.BOOK, isbn);
     }
 }
@@ -0,0 +1,292 @@
+package org.digilib.library.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.digilib.library.models.BookCopy;
+import org.digilib.library.models.dto.book.CopyStatusData;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In process fan-out of book copy status changes to server-sent event streams.
+ * <p>
+ * Subscribers pick the isbns and libraries they follow. Changes made inside a transaction are pushed once it commits.
+ * An idle stream holds no thread. Each subscriber has its own queue, drained in order on a virtual thread
+ * only while it has events, so one slow client never delays the others or the committing thread. A subscriber
+ * falling more than {@code copy-events.max-pending} events behind is disconnected and can reconnect.
+ * <p>
+ * Besides the global {@code copy-events.max-subscribers} cap, each user may hold at most
+ * {@code copy-events.max-per-user} streams, so one client cannot take all of them.
+ * <p>
+ * Publishes the {@code copy-events.subscribers} gauge and the {@code copy-events.sent} and
+ * {@code copy-events.dropped} counters.
+ */
+@Slf4j
+@Component
+public class CopyEventBroadcaster {
+
+    public static final String STATUS_EVENT = "copy-status";
+
+    public static final String DELETED_EVENT = "copy-deleted";
+
+    private final ObjectMapper objectMapper;
+
+    private final Duration timeout;
+
+    private final int maxSubscribers;
+
+    private final int maxPending;
+
+    private final int maxPerUser;
+
+    private final Counter sent;
+
+    private final Counter dropped;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    private final Map<String, Set<Subscriber>> byIsbn = new ConcurrentHashMap<>();
+
+    private final Map<Long, Set<Subscriber>> byLibrary = new ConcurrentHashMap<>();
+
+    private final Map<Long, Integer> byUser = new ConcurrentHashMap<>();
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public CopyEventBroadcaster(
+            ObjectMapper objectMapper,
+            @Value("${copy-events.timeout}") Duration timeout,
+            @Value("${copy-events.max-subscribers}") int maxSubscribers,
+            @Value("${copy-events.max-pending}") int maxPending,
+            @Value("${copy-events.max-per-user}") int maxPerUser,
+            MeterRegistry meterRegistry
+    ) {
+        this.objectMapper = objectMapper;
+        this.timeout = timeout;
+        this.maxSubscribers = maxSubscribers;
+        this.maxPending = maxPending;
+        this.maxPerUser = maxPerUser;
+        this.sent = Counter.builder("copy-events.sent")
+                .description("Copy status events written to event streams")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("copy-events.dropped")
+                .description("Event streams disconnected for falling behind")
+                .register(meterRegistry);
+
+        Gauge.builder("copy-events.subscribers", subscribers, Set::size)
+                .description("Open copy status event streams")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Opens an event stream receiving the changes of copies of the given books or held by the given libraries.
+     * @param userId user opening the stream.
+     * @throws IllegalStateException if {@code copy-events.max-subscribers} streams are already open,
+     * or the user already has {@code copy-events.max-per-user} of them.
+     */
+    public SseEmitter subscribe(long userId, Set<String> isbns, Set<Long> libraryIds) {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new IllegalStateException("Too many open event streams, try again later.");
+        }
+
+        if (byUser.merge(userId, 1, Integer::sum) > maxPerUser) {
+            releaseStreamOf(userId);
+            throw new IllegalStateException("Too many open event streams for this user, close one first.");
+        }
+
+        Subscriber subscriber = new Subscriber(
+                new SseEmitter(timeout.toMillis()), userId, Set.copyOf(isbns), Set.copyOf(libraryIds));
+        subscriber.emitter.onCompletion(() -> unregister(subscriber));
+        subscriber.emitter.onTimeout(() -> unregister(subscriber));
+        subscriber.emitter.onError(_ -> unregister(subscriber));
+
+        subscribers.add(subscriber);
+        isbns.forEach(isbn -> byIsbn.computeIfAbsent(isbn, _ -> ConcurrentHashMap.newKeySet()).add(subscriber));
+        libraryIds.forEach(id -> byLibrary.computeIfAbsent(id, _ -> ConcurrentHashMap.newKeySet()).add(subscriber));
+
+        return subscriber.emitter;
+    }
+
+    /**
+     * Pushes the current status of a copy, after the current transaction commits if there is one.
+     */
+    public void statusChanged(BookCopy copy) {
+        publish(STATUS_EVENT, CopyStatusData.of(copy));
+    }
+
+    /**
+     * Pushes the deletion of a copy, after the current transaction commits if there is one.
+     */
+    public void deleted(BookCopy copy) {
+        publish(DELETED_EVENT, CopyStatusData.deleted(copy));
+    }
+
+    /**
+     * Keeps idle streams open through proxies and finds the ones whose client went away.
+     */
+    @Scheduled(
+            initialDelayString = "${copy-events.heartbeat-interval}",
+            fixedDelayString = "${copy-events.heartbeat-interval}"
+    )
+    public void heartbeat() {
+        subscribers.forEach(subscriber -> offer(subscriber, Message.HEARTBEAT));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        executor.shutdownNow();
+    }
+
+    private void publish(String name, CopyStatusData data) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(data);
+        } catch (JsonProcessingException e) {
+            // never fail the change itself because of the notification
+            log.warn("Could not serialize status of copy {}", data.copyId(), e);
+            return;
+        }
+
+        Message message = new Message(name, data.copyId() + ":" + data.changedAt().toEpochMilli(), json);
+        afterCommit(() -> {
+            Set<Subscriber> targets = new HashSet<>(byIsbn.getOrDefault(data.isbn(), Set.of()));
+            targets.addAll(byLibrary.getOrDefault(data.libraryId(), Set.of()));
+            targets.forEach(subscriber -> offer(subscriber, message));
+        });
+    }
+
+    private void offer(Subscriber subscriber, Message message) {
+        if (subscriber.pending.incrementAndGet() > maxPending) {
+            if (unregister(subscriber)) {
+                dropped.increment();
+                log.debug("Disconnecting copy event stream {} events behind", maxPending);
+                subscriber.emitter.complete();
+            }
+            return;
+        }
+
+        subscriber.mailbox.add(message);
+        if (subscriber.draining.compareAndSet(false, true)) {
+            executor.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        do {
+            Message message;
+            while ((message = subscriber.mailbox.poll()) != null) {
+                subscriber.pending.decrementAndGet();
+                try {
+                    subscriber.emitter.send(message.toEvent());
+                    if (message != Message.HEARTBEAT) {
+                        sent.increment();
+                    }
+                } catch (IOException | IllegalStateException e) {
+                    // the client went away or the stream is already complete
+                    unregister(subscriber);
+                    subscriber.mailbox.clear();
+                    return;
+                }
+            }
+            subscriber.draining.set(false);
+        } while (!subscriber.mailbox.isEmpty() && subscriber.draining.compareAndSet(false, true));
+    }
+
+    private boolean unregister(Subscriber subscriber) {
+        if (!subscribers.remove(subscriber)) {
+            return false;
+        }
+
+        subscriber.isbns.forEach(isbn -> byIsbn.computeIfPresent(isbn, (_, set) -> {
+            set.remove(subscriber);
+            return set.isEmpty() ? null : set;
+        }));
+        subscriber.libraryIds.forEach(id -> byLibrary.computeIfPresent(id, (_, set) -> {
+            set.remove(subscriber);
+            return set.isEmpty() ? null : set;
+        }));
+        releaseStreamOf(subscriber.userId);
+        return true;
+    }
+
+    private void releaseStreamOf(long userId) {
+        byUser.computeIfPresent(userId, (_, open) -> open > 1 ? open - 1 : null);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private record Message(String name, String id, String json) {
+
+        static final Message HEARTBEAT = new Message(null, null, null);
+
+        SseEmitter.SseEventBuilder toEvent() {
+            if (name == null) {
+                return SseEmitter.event().comment("heartbeat");
+            }
+            return SseEmitter.event()
+                    .name(name)
+                    .id(id)
+                    .data(json, MediaType.APPLICATION_JSON);
+        }
+    }
+
+    private static final class Subscriber {
+
+        final SseEmitter emitter;
+
+        final long userId;
+
+        final Set<String> isbns;
+
+        final Set<Long> libraryIds;
+
+        final Queue<Message> mailbox = new ConcurrentLinkedQueue<>();
+
+        final AtomicInteger pending = new AtomicInteger();
+
+        final AtomicBoolean draining = new AtomicBoolean();
+
+        Subscriber(SseEmitter emitter, long userId, Set<String> isbns, Set<Long> libraryIds) {
+            this.emitter = emitter;
+            this.userId = userId;
+            this.isbns = isbns;
+            this.libraryIds = libraryIds;
+        }
+    }
+}
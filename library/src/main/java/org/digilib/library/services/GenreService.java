@@ -1,7 +1,10 @@
 package org.digilib.library.services;
 
 import lombok.RequiredArgsConstructor;
+import org.digilib.library.configs.CacheConfig;
 import org.digilib.library.errors.exceptions.ResourceNotFoundException;
+import org.digilib.library.models.Author;
+import org.digilib.library.models.Book;
 import org.digilib.library.models.Genre;
 import org.digilib.library.models.dto.author.AuthorData;
 import org.digilib.library.models.dto.book.BookData;
@@ -11,11 +14,22 @@ import org.digilib.library.models.dto.genre.GenreUpdateView;
 import org.digilib.library.repositories.AuthorRepository;
 import org.digilib.library.repositories.BookRepository;
 import org.digilib.library.repositories.GenreRepository;
+import org.digilib.library.repositories.SparseFieldRepository;
+import org.digilib.library.repositories.SparseFieldRepository.Filter;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
@@ -26,7 +40,10 @@ public class GenreService {
 
     private final AuthorRepository authorRepository;
 
+    private final SparseFieldRepository sparseFieldRepository;
 
+
+    @Cacheable(CacheConfig.GENRES)
     public List<GenreData> findAll() {
         return genreRepository.findAll()
                 .stream()
@@ -34,27 +51,58 @@ public class GenreService {
                 .toList();
     }
 
+    @Cacheable(CacheConfig.GENRE_DATA)
     public GenreData findGenreDataById(long id) {
         return genreRepository.findById(id)
                 .map(GenreData::wrapGenre)
                 .orElseThrow(() -> ResourceNotFoundException.of(Genre.class, id));
     }
 
-    public Genre findById(long id) {
-        return genreRepository.findById(id)
+    /**
+     * @param genre genre known to exist, e.g. from {@link #findGenreDataById(long)}.
+     * @return an unloaded reference to the genre, to query by or associate with.
+     */
+    public Genre referenceTo(GenreData genre) {
+        return genreRepository.getReferenceById(genre.id());
+    }
+
+
+
+    /**
+     * @param fields components of {@link BookData} to read, every one of them when empty.
+     */
+    public Page<BookData> findBooksByGenreId(long id, Pageable pageable, Set<String> fields) {
+        Genre genre = genreRepository.findById(id)
                 .orElseThrow(() -> ResourceNotFoundException.of(Genre.class, id));
+
+        if (fields.isEmpty()) {
+            return bookRepository.findAllByGenre(genre, pageable);
+        }
+        return sparseFieldRepository.findAll(Book.class, BookData.class, fields, byGenre(genre), pageable);
     }
 
+    /**
+     * @param fields components of {@link BookData} to read, every one of them when empty.
+     */
+    public Slice<BookData> findBooksSliceByGenreId(long id, Pageable pageable, Set<String> fields) {
+        Genre genre = genreRepository.findById(id)
+                .orElseThrow(() -> ResourceNotFoundException.of(Genre.class, id));
 
+        if (fields.isEmpty()) {
+            return bookRepository.findSliceByGenre(genre, pageable);
+        }
+        return sparseFieldRepository.findSlice(Book.class, BookData.class, fields, byGenre(genre), pageable);
+    }
 
-    public Page<BookData> findBooksByGenreId(long id, Pageable pageable) {
+    public Window<BookData> findBooksByGenreId(long id, ScrollPosition position, Sort sort, Limit limit) {
         Genre genre = genreRepository.findById(id)
                 .orElseThrow(() -> ResourceNotFoundException.of(Genre.class, id));
 
-        return bookRepository.findAllByGenre(genre, pageable)
+        return bookRepository.findAllByGenre(genre, position, sort, limit)
                 .map(BookData::wrapBook);
     }
 
+    @CacheEvict(cacheNames = CacheConfig.GENRES, allEntries = true)
     public GenreData createGenre(GenreCreateView genreCreateData) {
         Genre created = Genre.builder()
                 .title(genreCreateData.title())
@@ -65,6 +113,10 @@ public class GenreService {
         return GenreData.wrapGenre(saved);
     }
 
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.GENRES, allEntries = true),
+            @CacheEvict(cacheNames = CacheConfig.GENRE_DATA, key = "#id")
+    })
     public GenreData updateGenre(long id, GenreUpdateView genreUpdateData) {
         Genre genre = genreRepository.findById(id)
                 .orElseThrow(() -> ResourceNotFoundException.of(Genre.class, id));
@@ -74,6 +126,10 @@ public class GenreService {
         return GenreData.wrapGenre(genre);
     }
 
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.GENRES, allEntries = true),
+            @CacheEvict(cacheNames = CacheConfig.GENRE_DATA, key = "#id")
+    })
     public void deleteGenre(long id) {
         Genre genre =  genreRepository.findById(id)
                 .orElseThrow(() -> ResourceNotFoundException.of(Genre.class, id));
@@ -81,12 +137,29 @@ public class GenreService {
         genreRepository.delete(genre);
     }
 
-    public Page<AuthorData> findAuthorsByGenre(long genreId, Pageable pageable) {
+    /**
+     * @param fields components of {@link AuthorData} to read, every one of them when empty.
+     */
+    public Page<AuthorData> findAuthorsByGenre(long genreId, Pageable pageable, Set<String> fields) {
+        Genre genre = genreRepository.findById(genreId)
+                .orElseThrow(() -> ResourceNotFoundException.of(Genre.class, genreId));
+
+        if (fields.isEmpty()) {
+            return authorRepository.findAuthorsByGenre(genre, pageable)
+                    .map(AuthorData::wrapAuthor);
+        }
+        return sparseFieldRepository.findAll(Author.class, AuthorData.class, fields, byGenre(genre), pageable);
+    }
+
+    public Window<AuthorData> findAuthorsByGenre(long genreId, ScrollPosition position, Sort sort, Limit limit) {
         Genre genre = genreRepository.findById(genreId)
                 .orElseThrow(() -> ResourceNotFoundException.of(Genre.class, genreId));
 
-        return authorRepository.findAuthorsByGenre(genre, pageable)
+        return authorRepository.findAuthorsByGenre(genre, position, sort, limit)
                 .map(AuthorData::wrapAuthor);
+    }
 
+    private static Filter byGenre(Genre genre) {
+        return Filter.of("WHERE e.genre.id = :genreId", "genreId", genre.getId());
     }
 }
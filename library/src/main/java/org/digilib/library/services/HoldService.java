@@ -0,0 +1,148 @@
+package org.digilib.library.services;
+
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.digilib.library.errors.exceptions.ResourceNotFoundException;
+import org.digilib.library.models.Book;
+import org.digilib.library.models.Hold;
+import org.digilib.library.models.Status;
+import org.digilib.library.models.User;
+import org.digilib.library.models.dto.HoldData;
+import org.digilib.library.repositories.BookCopyRepository;
+import org.digilib.library.repositories.BookRepository;
+import org.digilib.library.repositories.HoldRepository;
+import org.digilib.library.repositories.ReservationRepository;
+import org.digilib.library.repositories.UserRepository;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+
+/**
+ * Per book hold queues. Users join the queue of a book once, and whenever a copy of the book becomes available
+ * it is reserved for the oldest hold, so waiting users never need to poll for free copies.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class HoldService {
+
+    private final HoldRepository holdRepository;
+
+    private final BookRepository bookRepository;
+
+    private final BookCopyRepository bookCopyRepository;
+
+    private final ReservationRepository reservationRepository;
+
+    private final UserRepository userRepository;
+
+    private final BookCopyService bookCopyService;
+
+    /**
+     * Puts the user in the hold queue of a book, or keeps their current place if they are already in it.
+     * A copy is allocated right away if one is available.
+     * @throws IllegalStateException if the user already has a reservation for the book.
+     */
+    @Transactional
+    public HoldData enqueue(String rawIsbn, String email) {
+        String isbn = normalize(rawIsbn);
+        if (!bookRepository.existsById(isbn)) {
+            throw ResourceNotFoundException.of(Book.class, rawIsbn);
+        }
+
+        User user = userRepository.findByEmail(email)
+                .orElseThrow(() -> ResourceNotFoundException.of(User.class, email));
+
+        if (reservationRepository.existsByBook_IsbnAndUser_Id(isbn, user.getId())) {
+            throw new IllegalStateException("A copy of this book is already reserved for you.");
+        }
+
+        holdRepository.insertIfAbsent(isbn, user.getId());
+
+        allocate(isbn);
+
+        return stateOf(isbn, user.getId())
+                .orElseThrow(() -> ResourceNotFoundException.of(Hold.class, rawIsbn));
+    }
+
+    /**
+     * @return the user's place in the queue of a book, or whether a copy was allocated to them.
+     */
+    public HoldData findHold(String rawIsbn, String email) {
+        String isbn = normalize(rawIsbn);
+        User user = userRepository.findByEmail(email)
+                .orElseThrow(() -> ResourceNotFoundException.of(User.class, email));
+
+        return stateOf(isbn, user.getId())
+                .orElseThrow(() -> ResourceNotFoundException.of(Hold.class, rawIsbn));
+    }
+
+    @Transactional
+    public void cancel(String rawIsbn, String email) {
+        String isbn = normalize(rawIsbn);
+        User user = userRepository.findByEmail(email)
+                .orElseThrow(() -> ResourceNotFoundException.of(User.class, email));
+
+        Hold hold = holdRepository.findByBook_IsbnAndUser_Id(isbn, user.getId())
+                .orElseThrow(() -> ResourceNotFoundException.of(Hold.class, rawIsbn));
+
+        holdRepository.delete(hold);
+    }
+
+    /**
+     * Reserves available copies of a book for the oldest holds until either runs out.
+     * Must be called, in the same transaction, wherever a copy of the book may have become available.
+     * @param isbn normalized isbn of the book.
+     * @return number of holds served.
+     */
+    @Transactional
+    public int allocate(String isbn) {
+        int served = 0;
+
+        Optional<Hold> next;
+        while ((next = holdRepository.lockNextHold(isbn)).isPresent()) {
+            Hold hold = next.get();
+            User user = hold.getUser();
+
+            if (reservationRepository.existsByBook_IsbnAndUser_Id(isbn, user.getId())) {
+                // reserved directly meanwhile, the hold is no longer needed
+                holdRepository.delete(hold);
+                holdRepository.flush();
+                continue;
+            }
+
+            Optional<Long> copyId = bookCopyRepository.lockAvailableCopy(isbn, "");
+            if (copyId.isEmpty()) {
+                break;
+            }
+
+            bookCopyRepository.updateStatusIf(copyId.get(), Status.AVAILABLE, Status.RESERVED);
+            bookCopyService.reserve(copyId.get(), user);
+            holdRepository.delete(hold);
+            holdRepository.flush();
+            served++;
+        }
+
+        if (served > 0) {
+            log.debug("Allocated {} copies of {} to holds", served, isbn);
+        }
+        return served;
+    }
+
+    private Optional<HoldData> stateOf(String isbn, long userId) {
+        Optional<Hold> hold = holdRepository.findByBook_IsbnAndUser_Id(isbn, userId);
+        if (hold.isPresent()) {
+            Hold h = hold.get();
+            return Optional.of(HoldData.waiting(h, holdRepository.findPosition(isbn, h.getCreatedAt(), h.getId())));
+        }
+
+        return reservationRepository.existsByBook_IsbnAndUser_Id(isbn, userId)
+                ? Optional.of(HoldData.allocated(isbn))
+                : Optional.empty();
+    }
+
+    private static String normalize(String rawIsbn) {
+        return rawIsbn.replaceAll("[-\\s]", "");
+    }
+}
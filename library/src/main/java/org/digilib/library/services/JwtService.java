@@ -3,6 +3,7 @@ package org.digilib.library.services;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import lombok.extern.slf4j.Slf4j;
+import org.digilib.library.models.Role;
 import org.digilib.library.models.User;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.GrantedAuthority;
@@ -23,7 +24,10 @@ import java.util.function.Function;
 @Component
 public class JwtService {
 
+    private static final String ROLE_PREFIX = "ROLE_";
+
     private final Key key;
+    private final JwtParser parser;
     private final long accessTlsSeconds;
     private final long refreshTlsSeconds;
 
@@ -34,6 +38,9 @@ public class JwtService {
             @Value("${security.jwt.refresh-token-expiration-days}") long refreshDays
     ) {
         this.key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(key)
+                .build();
         this.accessTlsSeconds = accessMinutes * 60;
         this.refreshTlsSeconds = refreshDays * 24 * 60 * 60;
     }
@@ -60,30 +67,57 @@ public class JwtService {
                 .compact();
     }
 
+    /**
+     * Parses and verifies the token signature and expiration exactly once.
+     * @param token compact JWS string.
+     * @return verified claims that can be reused for the rest of the request.
+     * @throws JwtException when the token is malformed, expired or its signature does not match.
+     */
+    public VerifiedToken verify(String token) {
+        return new VerifiedToken(parser.parseClaimsJws(token).getBody());
+    }
+
     public <T> T extractFromToken(String token, Function<Claims, T> claimsResolver) {
-        Jws<Claims> claimsJws = parseTokenClaims(token);
-        Claims body = claimsJws.getBody();
-        return claimsResolver.apply(body);
+        return claimsResolver.apply(verify(token).claims());
     }
 
-    @SuppressWarnings("unchecked")
     public List<String> extractRolesFromToken(String token) {
-        return extractFromToken(token, claims -> {
-            Object authorities = claims.get("roles");
-            if (authorities instanceof List) {
-                return (List<String>) authorities;
-            }
-            return List.of();
-        });
+        return verify(token).roles();
     }
 
 
+    /**
+     * Builds a detached principal from verified access token claims without touching the database.
+     * Only id, email and roles are populated, and the principal is marked {@code claimsOnly}.
+     * @param token verified access token.
+     * @return lightweight principal carrying the token identity.
+     */
+    public User principalFrom(VerifiedToken token) {
+        Long id = token.userId();
+        if (id == null) {
+            throw new MalformedJwtException("Access token does not carry an id claim");
+        }
+
+        List<Role> roles = token.roles().stream()
+                .map(authority -> authority.startsWith(ROLE_PREFIX) ? authority.substring(ROLE_PREFIX.length()) : authority)
+                .map(name -> Role.builder().name(name).build())
+                .toList();
+
+        return User.builder()
+                .id(id)
+                .email(token.subject())
+                .roles(roles)
+                .claimsOnly(true)
+                .build();
+    }
+
+    public boolean isValidToken(VerifiedToken token, UserDetails claimsPrincipal) {
+        return token.subject().equals(claimsPrincipal.getUsername()) && !token.isExpired();
+    }
+
     public boolean isValidToken(String token, UserDetails claimsPrincipal) {
        try{
-           Claims claimsJws = parseTokenClaims(token).getBody();
-           String subject = claimsJws.getSubject();
-
-           return subject.equals(claimsPrincipal.getUsername()) && !isExpired(token);
+           return isValidToken(verify(token), claimsPrincipal);
        } catch (Exception e) {
            log.debug("Error parsing token", e);
            return false;
@@ -92,7 +126,7 @@ public class JwtService {
 
     public boolean isRefreshValid(String refreshToken) {
         try {
-            parseTokenClaims(refreshToken);
+            verify(refreshToken);
             return true;
         } catch (Exception e) {
             log.debug("Invalid refresh token", e);
@@ -101,11 +135,7 @@ public class JwtService {
     }
 
     public boolean isExpired(String token) {
-        Claims expiration = parseTokenClaims(token).getBody();
-        Date expirationDate = expiration.getExpiration();
-        Date now = new Date();
-
-        return expirationDate.before(now);
+        return verify(token).isExpired();
     }
 
     public String generateRefreshToken(String username) {
@@ -120,12 +150,4 @@ public class JwtService {
                 .compact();
     }
 
-
-    private Jws<Claims> parseTokenClaims(String token) {
-        JwtParser parser = Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build();
-
-        return parser.parseClaimsJws(token);
-    }
 }
@@ -2,6 +2,7 @@ package org.digilib.library.services;
 
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.digilib.library.configs.CacheConfig;
 import org.digilib.library.errors.exceptions.ResourceNotFoundException;
 import org.digilib.library.models.Book;
 import org.digilib.library.models.BookCopy;
@@ -15,14 +16,23 @@ import org.digilib.library.models.dto.library.LibraryData;
 import org.digilib.library.repositories.BookCopyRepository;
 import org.digilib.library.repositories.BookRepository;
 import org.digilib.library.repositories.LibraryRepository;
+import org.digilib.library.repositories.SparseFieldRepository;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -39,19 +49,46 @@ public class LibraryService {
 
     private final BookRepository bookRepository;
 
+    private final HoldService holdService;
+
+    private final CopyEventBroadcaster copyEventBroadcaster;
+
+    private final SparseFieldRepository sparseFieldRepository;
+
     private static final Pattern BARCODE_SUFFIX = Pattern.compile("-(\\d{4})$");
 
 
-    public Page<LibraryData> findAll(Pageable pageable) {
-        return libraryRepository.findAll(pageable)
+    /**
+     * @param fields components of {@link LibraryData} to read, every one of them when empty.
+     */
+    public Page<LibraryData> findAll(Pageable pageable, Set<String> fields) {
+        if (fields.isEmpty()) {
+            return libraryRepository.findAll(pageable)
+                    .map(LibraryData::wrapLibrary);
+        }
+        return sparseFieldRepository.findAll(Library.class, LibraryData.class, fields, pageable);
+    }
+
+    public Window<LibraryData> findAll(ScrollPosition position, Sort sort, Limit limit) {
+        return libraryRepository.findAllBy(position, sort, limit)
                 .map(LibraryData::wrapLibrary);
     }
 
-    public Library findById(long id){
+    @Cacheable(CacheConfig.LIBRARIES)
+    public LibraryData findById(long id){
         return libraryRepository.findById(id)
+                .map(LibraryData::wrapLibrary)
                 .orElseThrow(() -> ResourceNotFoundException.of(Library.class, id));
     }
 
+    /**
+     * @param library library known to exist, e.g. from {@link #findById(long)}.
+     * @return an unloaded reference to the library, to query by or associate copies with.
+     */
+    public Library referenceTo(LibraryData library) {
+        return libraryRepository.getReferenceById(library.id());
+    }
+
     @Transactional
     public LibraryData createNewLibrary(LibraryCreateView libraryCreateView) {
 
@@ -110,7 +147,12 @@ public class LibraryService {
             copiesToSave.add(bookCopy);
         }
 
-            bookCopyRepository.saveAll(copiesToSave);
+        bookCopyRepository.saveAll(copiesToSave);
+        distinctIsbns.forEach(holdService::allocate);
+        // copies handed to a hold were announced as reserved by the allocation
+        copiesToSave.stream()
+                .filter(copy -> copy.getStatus() == Status.AVAILABLE)
+                .forEach(copyEventBroadcaster::statusChanged);
 
         return LibraryData.wrapLibrary(saved);
     }
@@ -134,21 +176,30 @@ public class LibraryService {
     }
 
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.LIBRARIES, key = "#libraryId")
     public void deleteLibrary(long libraryId) {
-        Library library = findById(libraryId);
+        Library library = libraryRepository.findById(libraryId)
+                .orElseThrow(() -> ResourceNotFoundException.of(Library.class, libraryId));
 
         libraryRepository.delete(library);
     }
 
     public Page<BookCopyData> findCopiesByLibrary(Library library, Pageable pageable) {
-        Page<BookCopy> copies = bookCopyRepository.findAllByLibrary(library, pageable);
+        return bookCopyRepository.findAllByLibrary(library, pageable);
+    }
+
+    public Slice<BookCopyData> findCopiesSliceByLibrary(Library library, Pageable pageable) {
+        return bookCopyRepository.findSliceByLibrary(library, pageable);
+    }
 
-        return copies.map(BookCopyData::wrapCopy);
+    public Window<BookCopyData> findCopiesByLibrary(Library library, ScrollPosition position, Sort sort, Limit limit) {
+        return bookCopyRepository.findAllByLibrary(library, position, sort, limit)
+                .map(BookCopyData::wrapCopy);
     }
 
     @Transactional
     public BookCopyData addBookCopyTo(Library library, BookCopyCreateView bookCopyCreateView) {
-        Book book = bookRepository.findByIsbn(bookCopyCreateView.bookIsbn())
+        Book book = bookRepository.findById(bookCopyCreateView.bookIsbn())
                 .orElseThrow(() -> ResourceNotFoundException.of(Book.class, bookCopyCreateView.bookIsbn()));
 
         BookCopy bookCopy = BookCopy.builder()
@@ -159,6 +210,11 @@ public class LibraryService {
                 .build();
 
         BookCopy saved = bookCopyRepository.save(bookCopy);
+        holdService.allocate(book.getIsbn());
+        // a copy handed to a hold was announced as reserved by the allocation
+        if (saved.getStatus() == Status.AVAILABLE) {
+            copyEventBroadcaster.statusChanged(saved);
+        }
 
         return BookCopyData.wrapCopy(saved);
     }
@@ -168,10 +224,19 @@ public class LibraryService {
         BookCopy bookCopy = bookCopyRepository.findBookCopyByIdAndLibrary(bookCopyId, library)
                 .orElseThrow(() -> ResourceNotFoundException.of(BookCopy.class, bookCopyId));
 
+        Status previous = bookCopy.getStatus();
         setIfPresent(bookCopyUpdateView.barcode(), String::trim, bookCopy::setBarcode);
         setIfPresent(bookCopyUpdateView.status(), bookCopy::setStatus);
 
-        BookCopy saved = bookCopyRepository.save(bookCopy);
+        BookCopy saved = bookCopyRepository.saveAndFlush(bookCopy);
+        Status updated = saved.getStatus();
+        if (updated == Status.AVAILABLE) {
+            holdService.allocate(saved.getBook().getIsbn());
+        }
+        // a copy handed to a hold was announced as reserved by the allocation
+        if (updated != previous && saved.getStatus() == updated) {
+            copyEventBroadcaster.statusChanged(saved);
+        }
 
         return BookCopyData.wrapCopy(saved);
     }
@@ -182,6 +247,7 @@ public class LibraryService {
                 .orElseThrow(() -> ResourceNotFoundException.of(BookCopy.class, bookCopyId));
 
         bookCopyRepository.delete(bookCopy);
+        copyEventBroadcaster.deleted(bookCopy);
     }
 
 }
@@ -0,0 +1,157 @@
+package org.digilib.library.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reports virtual threads pinned to their carrier thread, which then blocks the carrier instead of unmounting.
+ * <p>
+ * Listens to the {@code jdk.VirtualThreadPinned} events of an in process JFR stream for pins longer than
+ * {@code virtual-threads.pinned-monitor.threshold}. They are timed in {@code virtual-threads.pinned},
+ * failed virtual thread starts are counted in {@code virtual-threads.submit-failed}, and the latest pins with
+ * their stacks are served by the {@code pinnedthreads} actuator endpoint.
+ * <p>
+ * Only runs when {@code spring.threads.virtual.enabled} is on, platform threads are never pinned.
+ */
+@Slf4j
+@Component
+@Endpoint(id = "pinnedthreads")
+@ConditionalOnThreading(Threading.VIRTUAL)
+@ConditionalOnProperty(name = "virtual-threads.pinned-monitor.enabled", havingValue = "true", matchIfMissing = true)
+public class PinnedThreadMonitor {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    private static final String SUBMIT_FAILED_EVENT = "jdk.VirtualThreadSubmitFailed";
+
+    private static final int MAX_FRAMES = 12;
+
+    private final Duration threshold;
+
+    private final int maxRecent;
+
+    private final Timer pinned;
+
+    private final Counter submitFailed;
+
+    private final Deque<PinnedEvent> recent = new ArrayDeque<>();
+
+    private RecordingStream stream;
+
+    public PinnedThreadMonitor(
+            @Value("${virtual-threads.pinned-monitor.threshold}") Duration threshold,
+            @Value("${virtual-threads.pinned-monitor.recent-events}") int maxRecent,
+            MeterRegistry meterRegistry
+    ) {
+        this.threshold = threshold;
+        this.maxRecent = maxRecent;
+        this.pinned = Timer.builder("virtual-threads.pinned")
+                .description("Time virtual threads spent pinned to their carrier thread")
+                .register(meterRegistry);
+        this.submitFailed = Counter.builder("virtual-threads.submit-failed")
+                .description("Virtual threads that could not be started or unparked")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        stream.enable(SUBMIT_FAILED_EVENT);
+        stream.onEvent(PINNED_EVENT, this::onPinned);
+        stream.onEvent(SUBMIT_FAILED_EVENT, _ -> submitFailed.increment());
+        stream.startAsync();
+
+        log.info("Watching for virtual threads pinned longer than {} ms", threshold.toMillis());
+    }
+
+    @PreDestroy
+    public void stop() {
+        stream.close();
+    }
+
+    @ReadOperation
+    public PinnedThreadsReport report() {
+        List<PinnedEvent> latest;
+        synchronized (recent) {
+            latest = List.copyOf(recent);
+        }
+
+        return new PinnedThreadsReport(
+                threshold.toMillis(),
+                pinned.count(),
+                (long) pinned.totalTime(TimeUnit.MILLISECONDS),
+                (long) submitFailed.count(),
+                latest
+        );
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinned.record(event.getDuration());
+
+        List<String> frames = event.getStackTrace() == null
+                ? List.of()
+                : event.getStackTrace().getFrames().stream()
+                        .limit(MAX_FRAMES)
+                        .map(PinnedThreadMonitor::describe)
+                        .toList();
+
+        PinnedEvent pin = new PinnedEvent(
+                event.getStartTime(),
+                event.getDuration().toMillis(),
+                event.getThread() == null ? null : event.getThread().getJavaName(),
+                frames
+        );
+
+        synchronized (recent) {
+            recent.addFirst(pin);
+            while (recent.size() > maxRecent) {
+                recent.removeLast();
+            }
+        }
+
+        log.debug("Virtual thread pinned for {} ms at {}", pin.durationMs(), frames.isEmpty() ? "?" : frames.getFirst());
+    }
+
+    private static String describe(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + '.' + frame.getMethod().getName() + ':' + frame.getLineNumber();
+    }
+
+    /**
+     * @param thresholdMs pins shorter than this are not recorded.
+     * @param pinnedCount pins recorded since start.
+     * @param pinnedTotalMs time spent pinned in the recorded pins.
+     * @param submitFailedCount virtual threads that could not be started or unparked.
+     * @param recent latest pins, newest first.
+     */
+    public record PinnedThreadsReport(
+            long thresholdMs,
+            long pinnedCount,
+            long pinnedTotalMs,
+            long submitFailedCount,
+            List<PinnedEvent> recent
+    ) {}
+
+    public record PinnedEvent(Instant at, long durationMs, String thread, List<String> stack) {}
+}
@@ -0,0 +1,57 @@
+package org.digilib.library.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Bounded, time evicted cache of authenticated principals keyed by token subject (email).
+ * Hit, miss and eviction counters are published as {@code cache.*} metrics with {@code cache=principals}.
+ */
+@Slf4j
+@Component
+public class PrincipalCache {
+
+    public static final String CACHE_NAME = "principals";
+
+    private final Cache<String, UserDetails> principals;
+
+    public PrincipalCache(
+            @Value("${security.principal-cache.max-size}") long maxSize,
+            @Value("${security.principal-cache.ttl-seconds}") long ttlSeconds,
+            MeterRegistry meterRegistry
+    ) {
+        this.principals = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, principals, CACHE_NAME);
+    }
+
+    /**
+     * Returns the cached principal for the subject, loading it on a miss.
+     * @param subject token subject (user email).
+     * @param loader function used to load the principal when absent.
+     * @return cached or freshly loaded principal.
+     */
+    public UserDetails get(String subject, Function<String, ? extends UserDetails> loader) {
+        return principals.get(subject, loader);
+    }
+
+    public void evict(String subject) {
+        if (subject != null) {
+            principals.invalidate(subject);
+            log.debug("Evicted cached principal {}", subject);
+        }
+    }
+}
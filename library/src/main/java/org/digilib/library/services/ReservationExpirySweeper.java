@@ -0,0 +1,164 @@
+package org.digilib.library.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.digilib.library.models.Status;
+import org.digilib.library.repositories.BookCopyRepository;
+import org.digilib.library.repositories.ReservationRepository;
+import org.digilib.library.repositories.ReservationRepository.ExpiredBatch;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Periodically deletes expired reservations and returns their copies to {@code AVAILABLE},
+ * or straight to the next hold waiting for the book.
+ * <p>
+ * Each run handles at most {@code reservations.expiry.max-batches} batches of
+ * {@code reservations.expiry.batch-size} reservations, each batch one statement in its own transaction,
+ * so a backlog is worked off over several runs without long transactions.
+ * <p>
+ * Publishes {@code reservations.expired} and {@code reservations.copies.released} counters,
+ * the {@code reservations.sweep} timer and the {@code reservations.expiry.lag} gauge,
+ * the age of the oldest expired reservation left after the last run.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "reservations.expiry.enabled", havingValue = "true", matchIfMissing = true)
+public class ReservationExpirySweeper {
+
+    private final ReservationRepository reservationRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final BookCopyRepository bookCopyRepository;
+
+    private final HoldService holdService;
+
+    private final CopyEventBroadcaster copyEventBroadcaster;
+
+    private final int batchSize;
+
+    private final int maxBatches;
+
+    private final Counter expired;
+
+    private final Counter released;
+
+    private final Timer sweepTimer;
+
+    private final AtomicLong lagSeconds = new AtomicLong();
+
+    public ReservationExpirySweeper(
+            ReservationRepository reservationRepository,
+            TransactionTemplate transactionTemplate,
+            BookCopyRepository bookCopyRepository,
+            HoldService holdService,
+            CopyEventBroadcaster copyEventBroadcaster,
+            @Value("${reservations.expiry.batch-size}") int batchSize,
+            @Value("${reservations.expiry.max-batches}") int maxBatches,
+            MeterRegistry meterRegistry
+    ) {
+        this.reservationRepository = reservationRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.bookCopyRepository = bookCopyRepository;
+        this.holdService = holdService;
+        this.copyEventBroadcaster = copyEventBroadcaster;
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+        this.expired = Counter.builder("reservations.expired")
+                .description("Expired reservations removed by the sweeper")
+                .register(meterRegistry);
+        this.released = Counter.builder("reservations.copies.released")
+                .description("Reserved copies made available again after their reservation expired")
+                .register(meterRegistry);
+        this.sweepTimer = Timer.builder("reservations.sweep")
+                .description("Time spent sweeping expired reservations")
+                .register(meterRegistry);
+
+        Gauge.builder("reservations.expiry.lag", lagSeconds, AtomicLong::get)
+                .description("Age of the oldest expired reservation still waiting to be swept")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(
+            initialDelayString = "${reservations.expiry.sweep-interval}",
+            fixedDelayString = "${reservations.expiry.sweep-interval}"
+    )
+    public void sweep() {
+        sweepTimer.record(() -> {
+            Instant now = Instant.now();
+            long total = 0;
+
+            for (int batch = 0; batch < maxBatches; batch++) {
+                ExpiredBatch result = transactionTemplate.execute(_ -> {
+                    ExpiredBatch expiredBatch = reservationRepository.expireBatch(now, batchSize);
+                    allocateReleased(expiredBatch);
+                    announceReleased(expiredBatch);
+                    return expiredBatch;
+                });
+                if (result == null || result.getExpired() == 0) {
+                    break;
+                }
+
+                expired.increment(result.getExpired());
+                released.increment(result.getReleased());
+                total += result.getExpired();
+
+                if (result.getExpired() < batchSize) {
+                    break;
+                }
+            }
+
+            lagSeconds.set(reservationRepository.findOldestExpiry(Instant.now())
+                    .map(oldest -> Duration.between(oldest, Instant.now()).toSeconds())
+                    .orElse(0L));
+
+            if (total > 0) {
+                log.info("Expired {} reservations, {} seconds of backlog left", total, lagSeconds.get());
+            }
+        });
+    }
+
+    /**
+     * Announces the released copies that are still available once the holds have been served,
+     * copies handed to a hold were already announced as reserved.
+     */
+    private void announceReleased(ExpiredBatch batch) {
+        if (batch.getReleasedCopyIds() == null) {
+            return;
+        }
+
+        bookCopyRepository.findAllById(Arrays.stream(batch.getReleasedCopyIds().split(","))
+                        .map(Long::valueOf)
+                        .toList())
+                .stream()
+                .filter(copy -> copy.getStatus() == Status.AVAILABLE)
+                .forEach(copyEventBroadcaster::statusChanged);
+    }
+
+    /**
+     * Hands the released copies to waiting holds before the batch commits, so they never show up as available
+     * while someone is queued for them.
+     */
+    private void allocateReleased(ExpiredBatch batch) {
+        if (batch.getReleasedIsbns() == null) {
+            return;
+        }
+
+        for (String isbn : batch.getReleasedIsbns().split(",")) {
+            holdService.allocate(isbn);
+        }
+    }
+}
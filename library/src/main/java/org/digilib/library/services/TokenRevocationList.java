@@ -0,0 +1,57 @@
+package org.digilib.library.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.digilib.library.repositories.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * In memory list of disabled user ids checked by the stateless JWT path.
+ * Entries only need to outlive the access tokens issued before the user was disabled,
+ * so they expire after one access token lifetime.
+ */
+@Slf4j
+@Component
+public class TokenRevocationList {
+
+    private final Cache<Long, Boolean> revokedUserIds;
+
+    private final UserRepository userRepository;
+
+    public TokenRevocationList(
+            @Value("${security.jwt.token-expiration-minutes}") long accessMinutes,
+            UserRepository userRepository
+    ) {
+        this.revokedUserIds = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMinutes(accessMinutes))
+                .build();
+        this.userRepository = userRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadDisabledUsers() {
+        List<Long> disabledIds = userRepository.findDisabledUserIds();
+        disabledIds.forEach(this::revoke);
+
+        log.info("Loaded {} disabled users into the token revocation list", disabledIds.size());
+    }
+
+    public void revoke(long userId) {
+        revokedUserIds.put(userId, Boolean.TRUE);
+    }
+
+    public void reinstate(long userId) {
+        revokedUserIds.invalidate(userId);
+    }
+
+    public boolean isRevoked(long userId) {
+        return revokedUserIds.getIfPresent(userId) != null;
+    }
+}
@@ -0,0 +1,291 @@
+package org.digilib.library.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.digilib.library.models.dto.SuggestionData;
+import org.digilib.library.repositories.AuthorRepository;
+import org.digilib.library.repositories.BookRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * In memory typeahead index over book titles and author names.
+ * <p>
+ * Labels are split into accent and case folded tokens kept in a sorted map, so every query term is matched as a
+ * prefix with one range lookup. The index is built when the application starts and kept current by the book and
+ * author services; changes made inside a transaction are applied once it commits.
+ * <p>
+ * Memory use is estimated per entry and capped by {@code typeahead.max-memory-mb}; entries over the budget are
+ * counted in {@code typeahead.rejected} and left out. Rebuilds are timed by {@code typeahead.rebuild}.
+ */
+@Slf4j
+@Component
+public class TypeaheadIndex {
+
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    // rough heap cost of the objects behind an entry, a token and a posting
+    private static final int ENTRY_OVERHEAD = 160;
+    private static final int TOKEN_OVERHEAD = 120;
+    private static final int POSTING_OVERHEAD = 48;
+
+    private final BookRepository bookRepository;
+
+    private final AuthorRepository authorRepository;
+
+    private final long maxBytes;
+
+    private final int minQueryLength;
+
+    private final Timer rebuildTimer;
+
+    private final Counter rejected;
+
+    private final Object writeLock = new Object();
+
+    private volatile Index index = new Index();
+
+    public TypeaheadIndex(
+            BookRepository bookRepository,
+            AuthorRepository authorRepository,
+            @Value("${typeahead.max-memory-mb}") long maxMemoryMb,
+            @Value("${typeahead.min-query-length}") int minQueryLength,
+            MeterRegistry meterRegistry
+    ) {
+        this.bookRepository = bookRepository;
+        this.authorRepository = authorRepository;
+        this.maxBytes = maxMemoryMb * 1024 * 1024;
+        this.minQueryLength = minQueryLength;
+        this.rebuildTimer = Timer.builder("typeahead.rebuild")
+                .description("Time spent rebuilding the typeahead index")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("typeahead.rejected")
+                .description("Entries left out of the typeahead index because of its memory budget")
+                .register(meterRegistry);
+
+        Gauge.builder("typeahead.entries", this, t -> t.index.entries.size())
+                .description("Books and authors in the typeahead index")
+                .register(meterRegistry);
+        Gauge.builder("typeahead.tokens", this, t -> t.index.postings.size())
+                .description("Distinct tokens in the typeahead index")
+                .register(meterRegistry);
+        Gauge.builder("typeahead.memory", this, t -> t.index.bytes.get())
+                .description("Estimated heap used by the typeahead index")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Replaces the index with one built from the current books and authors.
+     * Updates made meanwhile wait for the rebuild, so none of them is lost.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        synchronized (writeLock) {
+            Index fresh = rebuildTimer.record(() -> {
+                Index built = new Index();
+                bookRepository.findAllSuggestions().forEach(s -> add(built, s));
+                authorRepository.findAllSuggestions().forEach(s -> add(built, s));
+                return built;
+            });
+            index = fresh;
+
+            log.info("Built typeahead index with {} entries, ~{} KB",
+                    fresh.entries.size(), fresh.bytes.get() / 1024);
+        }
+    }
+
+    /**
+     * Adds or replaces a suggestion, after the current transaction commits if there is one.
+     */
+    public void put(SuggestionData suggestion) {
+        afterCommit(() -> {
+            synchronized (writeLock) {
+                add(index, suggestion);
+            }
+        });
+    }
+
+    /**
+     * Removes a suggestion, after the current transaction commits if there is one.
+     */
+    public void remove(String type, String id) {
+        afterCommit(() -> {
+            synchronized (writeLock) {
+                index.remove(keyOf(type, id));
+            }
+        });
+    }
+
+    /**
+     * Finds suggestions whose label has a word starting with each term of the query.
+     * Labels starting with the whole query come first, then shorter labels.
+     * @param query text typed so far.
+     * @param limit maximum number of suggestions.
+     * @return matching suggestions, empty when the query is shorter than {@code typeahead.min-query-length}.
+     */
+    public List<SuggestionData> suggest(String query, int limit) {
+        String normalized = normalize(query).strip();
+        if (normalized.length() < minQueryLength) {
+            return List.of();
+        }
+
+        Index current = index;
+        Set<String> candidates = null;
+        for (String term : tokenize(normalized)) {
+            Set<String> matches = new HashSet<>();
+            current.postings.subMap(term, true, term + Character.MAX_VALUE, true)
+                    .values()
+                    .forEach(matches::addAll);
+
+            if (candidates == null) {
+                candidates = matches;
+            } else {
+                candidates.retainAll(matches);
+            }
+            if (candidates.isEmpty()) {
+                return List.of();
+            }
+        }
+        if (candidates == null) {
+            return List.of();
+        }
+
+        Comparator<Entry> relevance = Comparator
+                .comparing((Entry e) -> !e.label().startsWith(normalized))
+                .thenComparingInt(e -> e.label().length())
+                .thenComparing(Entry::label);
+
+        return candidates.stream()
+                .map(current.entries::get)
+                .filter(Objects::nonNull)
+                .sorted(relevance)
+                .limit(limit)
+                .map(Entry::data)
+                .toList();
+    }
+
+    private void add(Index target, SuggestionData suggestion) {
+        if (!target.put(suggestion, maxBytes)) {
+            rejected.increment();
+            log.debug("Typeahead index is over its memory budget, {} '{}' was not indexed",
+                    suggestion.type(), suggestion.id());
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static String keyOf(String type, String id) {
+        return type + ':' + id;
+    }
+
+    private static String normalize(String text) {
+        String decomposed = Normalizer.normalize(text == null ? "" : text, Normalizer.Form.NFD);
+        return MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    private static Set<String> tokenize(String normalized) {
+        Set<String> tokens = new LinkedHashSet<>();
+        Arrays.stream(SEPARATORS.split(normalized))
+                .filter(token -> !token.isEmpty())
+                .forEach(tokens::add);
+        return tokens;
+    }
+
+    private record Entry(SuggestionData data, String label, Set<String> tokens, long cost) {
+    }
+
+    /**
+     * Entries by key and the keys of the entries containing each token. Mutated only under the write lock,
+     * read concurrently by suggestions.
+     */
+    private static final class Index {
+
+        private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+        private final ConcurrentSkipListMap<String, Set<String>> postings = new ConcurrentSkipListMap<>();
+
+        private final AtomicLong bytes = new AtomicLong();
+
+        boolean put(SuggestionData suggestion, long budget) {
+            String key = keyOf(suggestion.type(), suggestion.id());
+            remove(key);
+
+            String label = normalize(suggestion.label());
+            Set<String> tokens = tokenize(label);
+            long cost = ENTRY_OVERHEAD
+                    + 2L * (key.length() + suggestion.label().length() + label.length())
+                    + (long) POSTING_OVERHEAD * tokens.size();
+            long newTokens = tokens.stream()
+                    .filter(token -> !postings.containsKey(token))
+                    .mapToLong(token -> TOKEN_OVERHEAD + 2L * token.length())
+                    .sum();
+
+            if (bytes.get() + cost + newTokens > budget) {
+                return false;
+            }
+
+            entries.put(key, new Entry(suggestion, label, tokens, cost));
+            for (String token : tokens) {
+                postings.computeIfAbsent(token, _ -> ConcurrentHashMap.newKeySet()).add(key);
+            }
+            bytes.addAndGet(cost + newTokens);
+            return true;
+        }
+
+        void remove(String key) {
+            Entry entry = entries.remove(key);
+            if (entry == null) {
+                return;
+            }
+
+            for (String token : entry.tokens()) {
+                postings.computeIfPresent(token, (t, keys) -> {
+                    keys.remove(key);
+                    if (keys.isEmpty()) {
+                        bytes.addAndGet(-(TOKEN_OVERHEAD + 2L * t.length()));
+                        return null;
+                    }
+                    return keys;
+                });
+            }
+            bytes.addAndGet(-entry.cost());
+        }
+    }
+}
@@ -13,13 +13,19 @@ import org.digilib.library.models.dto.user.UserUpdate;
 import org.digilib.library.repositories.RoleRepository;
 import org.digilib.library.repositories.UserRepository;
 import org.digilib.library.utils.Requests;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.digilib.library.utils.Params.setIfPresent;
 
@@ -35,13 +41,20 @@ public class UserService {
 
     private final HttpServletRequest request;
 
+    private final PrincipalCache principalCache;
+
+    private final TokenRevocationList tokenRevocationList;
+
     public UserData signupUser(RegisterDto registerData, List<String> roleNames){
 
         if (userRepository.existsByEmail(registerData.email())) {
             throw new DuplicateEmailException("User with email " + registerData.email() + " already exists.");
         }
 
-        List<Role> actualRoles = roleRepository.findAllByNameIn(roleNames);
+        List<Role> actualRoles = roleRepository.findIdsByNameIn(roleNames)
+                .stream()
+                .map(roleRepository::getReferenceById)
+                .collect(Collectors.toCollection(ArrayList::new));
         User user = User.builder()
                 .email(registerData.email())
                 .firstName(registerData.firstName())
@@ -58,6 +71,26 @@ public class UserService {
                 .map(user -> UserData.wrapUser(user, List.of()));
     }
 
+    public Window<UserData> findAll(long currentUserId, ScrollPosition position, Sort sort, Limit limit) {
+        return userRepository.findAllByIdNot(currentUserId, position, sort, limit)
+                .map(user -> UserData.wrapUser(user, List.of()));
+    }
+
+    /**
+     * Returns a principal with its profile fields populated.
+     * Principals built from token claims only carry id, email and roles, so those are reloaded.
+     * @param principal current authenticated principal.
+     * @return the principal itself, or the stored user when the principal is claims-only.
+     */
+    public User loadProfile(User principal) {
+        if (!principal.isClaimsOnly()) {
+            return principal;
+        }
+
+        return userRepository.findById(principal.getId())
+                .orElseThrow(() -> ResourceNotFoundException.of(User.class, principal.getId()));
+    }
+
     public void disableUser(long userId, long currentUserId) {
 
         User user = userRepository.findById(userId)
@@ -68,6 +101,8 @@ public class UserService {
         }
 
         userRepository.updateDisabled(user.getId(), true);
+        principalCache.evict(user.getEmail());
+        tokenRevocationList.revoke(user.getId());
 
     }
 
@@ -80,6 +115,8 @@ public class UserService {
         }
 
         userRepository.updateDisabled(user.getId(), false);
+        principalCache.evict(user.getEmail());
+        tokenRevocationList.reinstate(user.getId());
     }
 
     public UserData updateUser(User currentUser, long id, UserUpdate userUpdate) {
@@ -101,12 +138,16 @@ public class UserService {
         }
 
 
+        String previousEmail = user.getEmail();
 
         setIfPresent(userUpdate.firstName(), String::trim, user::setFirstName);
         setIfPresent(userUpdate.lastName(), String::trim, user::setLastName);
         setIfPresent(userUpdate.email(), String::trim, user::setEmail);
         setIfPresent(userUpdate.password(), String::trim, password -> user.setPassword(passwordEncoder.encode(password)));
 
-        return UserData.wrapUser(userRepository.save(user), roles);
+        User saved = userRepository.save(user);
+        principalCache.evict(previousEmail);
+
+        return UserData.wrapUser(saved, roles);
     }
 }
@@ -0,0 +1,41 @@
+package org.digilib.library.services;
+
+import io.jsonwebtoken.Claims;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Claims of a token whose signature and expiration were checked once by {@link JwtService#verify(String)}.
+ * Accessors read the already parsed body, so the token is never parsed again for the same request.
+ */
+public record VerifiedToken(Claims claims) {
+
+    public String subject() {
+        return claims.getSubject();
+    }
+
+    /**
+     * @return the {@code id} claim, or {@code null} when the token does not carry one (refresh tokens).
+     */
+    public Long userId() {
+        return claims.get("id") instanceof Number id ? id.longValue() : null;
+    }
+
+    @SuppressWarnings("unchecked")
+    public List<String> roles() {
+        Object authorities = claims.get("roles");
+        if (authorities instanceof List) {
+            return (List<String>) authorities;
+        }
+        return List.of();
+    }
+
+    public Instant expiresAt() {
+        return claims.getExpiration().toInstant();
+    }
+
+    public boolean isExpired() {
+        return expiresAt().isBefore(Instant.now());
+    }
+}
@@ -0,0 +1,112 @@
+package org.digilib.library.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Optional cache of verified access tokens keyed by the SHA-256 digest of the compact token,
+ * so a token reused across requests only pays signature verification once.
+ * Entries expire no later than the token's {@code exp} claim.
+ * <p>
+ * Publishes {@code cache.*} metrics with {@code cache=verified_tokens}, the {@code jwt.verify} timer for
+ * actual verifications and the {@code jwt.verify.saved} gauge estimating verification time saved by hits.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    public static final String CACHE_NAME = "verified_tokens";
+
+    private final JwtService jwtService;
+
+    private final boolean enabled;
+
+    private final Cache<String, VerifiedToken> tokens;
+
+    private final Timer verifyTimer;
+
+    public VerifiedTokenCache(
+            JwtService jwtService,
+            @Value("${security.jwt.verified-cache.enabled}") boolean enabled,
+            @Value("${security.jwt.verified-cache.max-size}") long maxSize,
+            MeterRegistry meterRegistry
+    ) {
+        this.jwtService = jwtService;
+        this.enabled = enabled;
+        this.tokens = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new UntilTokenExpiry())
+                .recordStats()
+                .build();
+        this.verifyTimer = Timer.builder("jwt.verify")
+                .description("Time spent verifying token signatures")
+                .register(meterRegistry);
+
+        CaffeineCacheMetrics.monitor(meterRegistry, tokens, CACHE_NAME);
+        Gauge.builder("jwt.verify.saved", this, VerifiedTokenCache::estimatedSecondsSaved)
+                .description("Estimated verification time saved by cache hits")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the verified claims for the token, verifying it only when it is not cached.
+     * @param token compact JWS string.
+     * @return verified token claims.
+     */
+    public VerifiedToken verify(String token) {
+        if (!enabled) {
+            return verifyTimer.record(() -> jwtService.verify(token));
+        }
+
+        return tokens.get(digest(token), _ -> verifyTimer.record(() -> jwtService.verify(token)));
+    }
+
+    private double estimatedSecondsSaved() {
+        return tokens.stats().hitCount() * verifyTimer.mean(TimeUnit.SECONDS);
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256")
+                    .digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static final class UntilTokenExpiry implements Expiry<String, VerifiedToken> {
+
+        @Override
+        public long expireAfterCreate(String key, VerifiedToken token, long currentTime) {
+            return Math.max(0, Duration.between(Instant.now(), token.expiresAt()).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, VerifiedToken token,
+                                      long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(String key, VerifiedToken token,
+                                    long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
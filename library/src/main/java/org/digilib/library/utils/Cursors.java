@@ -0,0 +1,113 @@
+package org.digilib.library.utils;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.Id;
+import org.digilib.library.errors.exceptions.InvalidRequestParamException;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.RecordComponent;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Encodes keyset scroll positions into opaque, url safe continuation tokens and back.
+ * A token holds the sort key values and id of the last row of the previous window.
+ */
+public final class Cursors {
+
+    public static final String CURSOR_PARAM = "cursor";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private static final TypeReference<LinkedHashMap<String, Object>> KEYS_TYPE = new TypeReference<>() {};
+
+    private Cursors(){}
+
+    /**
+     * Encodes the keys of a keyset position.
+     * @param position position of the last element of a window.
+     * @return opaque continuation token.
+     */
+    public static String encode(ScrollPosition position) {
+        if (!(position instanceof KeysetScrollPosition keyset)) {
+            throw new IllegalArgumentException("Only keyset positions can be encoded as cursors");
+        }
+
+        try {
+            byte[] json = MAPPER.writeValueAsBytes(keyset.getKeys());
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(json);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not encode cursor", e);
+        }
+    }
+
+    /**
+     * Decodes a continuation token of an entity listing into a forward keyset position,
+     * restoring key values to the entity field types.
+     * @param cursor token returned by a previous request, blank for the first window.
+     * @param clazz entity the keys belong to.
+     * @param sorts sort properties of the request, the keys must be these plus the entity id.
+     * @return initial position for a blank cursor, else the position after the encoded keys.
+     */
+    public static ScrollPosition decode(String cursor, Class<?> clazz, String[] sorts) {
+        Set<String> expected = new HashSet<>(Arrays.asList(sorts));
+        Arrays.stream(clazz.getDeclaredFields())
+                .filter(field -> field.isAnnotationPresent(Id.class))
+                .map(Field::getName)
+                .forEach(expected::add);
+
+        return decode(cursor, clazz, expected);
+    }
+
+    /**
+     * Decodes a continuation token whose keys are the components of a record.
+     * @param cursor token returned by a previous request, blank for the first window.
+     * @param keys record naming the keys and their types.
+     * @return initial position for a blank cursor, else the position after the encoded keys.
+     */
+    public static ScrollPosition decode(String cursor, Class<? extends Record> keys) {
+        return decode(cursor, keys, Arrays.stream(keys.getRecordComponents())
+                .map(RecordComponent::getName)
+                .collect(Collectors.toSet()));
+    }
+
+    /**
+     * A token made for other sorts, or edited, is rejected here with a 400 instead of failing the scroll query.
+     */
+    private static ScrollPosition decode(String cursor, Class<?> clazz, Set<String> expected) {
+        if (cursor == null || cursor.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+
+        try {
+            byte[] json = Base64.getUrlDecoder().decode(cursor);
+            Map<String, Object> raw = MAPPER.readValue(new String(json, StandardCharsets.UTF_8), KEYS_TYPE);
+            if (!raw.keySet().equals(expected)) {
+                throw new InvalidRequestParamException("The supplied cursor does not match the requested sorts", CURSOR_PARAM, cursor);
+            }
+
+            Map<String, Object> keys = LinkedHashMap.newLinkedHashMap(raw.size());
+            for (Map.Entry<String, Object> entry : raw.entrySet()) {
+                Field field = clazz.getDeclaredField(entry.getKey());
+                keys.put(entry.getKey(), MAPPER.convertValue(entry.getValue(), field.getType()));
+            }
+
+            return ScrollPosition.forward(keys);
+        } catch (IllegalArgumentException | JsonProcessingException | NoSuchFieldException e) {
+            throw new InvalidRequestParamException("The supplied cursor is not valid", CURSOR_PARAM, cursor);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package org.digilib.library.utils;
+
+import org.digilib.library.models.dto.CollectionVersion;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Builds etags from entity versions, so conditional requests can be answered before loading anything.
+ * The etags are weak: they identify the version of the data, not the bytes of one encoding of it.
+ */
+public final class ETags {
+
+    private ETags(){}
+
+    /**
+     * @param kind kind of resource, e.g. {@code book}.
+     * @param id id of the resource.
+     * @param updatedAt last modification of the resource.
+     */
+    public static String of(String kind, Object id, Instant updatedAt) {
+        return weak(kind + '-' + id + '-' + ChronoUnit.MICROS.between(Instant.EPOCH, updatedAt));
+    }
+
+    /**
+     * @param kind kind of the resources in the collection, e.g. {@code books}.
+     * @param version current version of the collection.
+     */
+    public static String of(String kind, CollectionVersion version) {
+        long lastUpdated = version.lastUpdated() == null ? 0 : ChronoUnit.MICROS.between(Instant.EPOCH, version.lastUpdated());
+        return weak(kind + '-' + version.count() + '-' + lastUpdated);
+    }
+
+    private static String weak(String tag) {
+        return "W/\"" + tag + '"';
+    }
+}
@@ -0,0 +1,107 @@
+-- Runs after Hibernate has updated the schema (spring.jpa.defer-datasource-initialization),
+-- for objects JPA mappings cannot express. Every statement must be safe to run on each start.
+
+-- full-text search over books and author names, see BookRepository#search
+ALTER TABLE books ADD COLUMN IF NOT EXISTS search_vector tsvector
+    GENERATED ALWAYS AS (
+        setweight(to_tsvector('simple', coalesce(title, '')), 'A') ||
+        setweight(to_tsvector('simple', coalesce(summary, '')), 'B')
+    ) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_books_search_vector ON books USING GIN (search_vector);
+
+ALTER TABLE authors ADD COLUMN IF NOT EXISTS search_vector tsvector
+    GENERATED ALWAYS AS (
+        to_tsvector('simple', coalesce(first_name, '') || ' ' || coalesce(last_name, ''))
+    ) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_authors_search_vector ON authors USING GIN (search_vector);
+
+CREATE INDEX IF NOT EXISTS idx_book_authors_author_id ON book_authors (author_id);
+
+-- available copies of a book, see BookCopyRepository#lockAvailableCopy
+CREATE INDEX IF NOT EXISTS idx_book_copies_available ON book_copies (book_isbn, library_id) WHERE status = 'AVAILABLE';
+
+-- copy counts per book, library and status, kept in step with book_copies by a trigger, see BookCopyRepository#findAvailability.
+-- Each pair is spread over 8 shard rows picked by copy id, so concurrent status changes of different copies
+-- of a book rarely wait on the same row lock; readers sum the shards.
+CREATE TABLE IF NOT EXISTS book_availability_shards (
+    book_isbn varchar(13) NOT NULL REFERENCES books (isbn) ON DELETE CASCADE,
+    library_id bigint NOT NULL REFERENCES libraries (id) ON DELETE CASCADE,
+    shard smallint NOT NULL,
+    available integer NOT NULL DEFAULT 0,
+    reserved integer NOT NULL DEFAULT 0,
+    checked_out integer NOT NULL DEFAULT 0,
+    lost integer NOT NULL DEFAULT 0,
+    PRIMARY KEY (book_isbn, library_id, shard)
+);
+
+-- the body is quoted with single quotes since the script splitter does not understand dollar quoting
+CREATE OR REPLACE FUNCTION book_availability_track() RETURNS trigger LANGUAGE plpgsql AS '
+BEGIN
+    IF TG_OP = ''UPDATE''
+            AND OLD.status IS NOT DISTINCT FROM NEW.status
+            AND OLD.book_isbn = NEW.book_isbn
+            AND OLD.library_id = NEW.library_id THEN
+        RETURN NULL;
+    END IF;
+
+    IF TG_OP IN (''UPDATE'', ''DELETE'') THEN
+        UPDATE book_availability_shards SET
+            available = available - coalesce(OLD.status = ''AVAILABLE'', false)::int,
+            reserved = reserved - coalesce(OLD.status = ''RESERVED'', false)::int,
+            checked_out = checked_out - coalesce(OLD.status = ''CHECKED_OUT'', false)::int,
+            lost = lost - coalesce(OLD.status = ''LOST'', false)::int
+        WHERE book_isbn = OLD.book_isbn AND library_id = OLD.library_id AND shard = OLD.id % 8;
+    END IF;
+
+    IF TG_OP IN (''INSERT'', ''UPDATE'') THEN
+        INSERT INTO book_availability_shards AS a (book_isbn, library_id, shard, available, reserved, checked_out, lost)
+        VALUES (
+            NEW.book_isbn,
+            NEW.library_id,
+            NEW.id % 8,
+            coalesce(NEW.status = ''AVAILABLE'', false)::int,
+            coalesce(NEW.status = ''RESERVED'', false)::int,
+            coalesce(NEW.status = ''CHECKED_OUT'', false)::int,
+            coalesce(NEW.status = ''LOST'', false)::int
+        )
+        ON CONFLICT (book_isbn, library_id, shard) DO UPDATE SET
+            available = a.available + EXCLUDED.available,
+            reserved = a.reserved + EXCLUDED.reserved,
+            checked_out = a.checked_out + EXCLUDED.checked_out,
+            lost = a.lost + EXCLUDED.lost;
+    END IF;
+
+    RETURN NULL;
+END
+';
+
+-- created only once, dropping and recreating it would miss changes made by running instances meanwhile.
+-- The counts of existing copies are filled in before the trigger exists, with writes to book_copies held off
+-- until both are committed, so no change is counted twice or missed; the check is repeated under the lock
+-- in case another instance created the trigger while this one waited.
+DO '
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_trigger WHERE tgname = ''book_copies_availability'') THEN
+        LOCK TABLE book_copies IN SHARE ROW EXCLUSIVE MODE;
+
+        IF NOT EXISTS (SELECT 1 FROM pg_trigger WHERE tgname = ''book_copies_availability'') THEN
+            INSERT INTO book_availability_shards (book_isbn, library_id, shard, available, reserved, checked_out, lost)
+            SELECT book_isbn,
+                   library_id,
+                   id % 8,
+                   count(*) FILTER (WHERE status = ''AVAILABLE''),
+                   count(*) FILTER (WHERE status = ''RESERVED''),
+                   count(*) FILTER (WHERE status = ''CHECKED_OUT''),
+                   count(*) FILTER (WHERE status = ''LOST'')
+            FROM book_copies
+            GROUP BY book_isbn, library_id, id % 8;
+
+            CREATE TRIGGER book_copies_availability
+                AFTER INSERT OR UPDATE OR DELETE ON book_copies
+                FOR EACH ROW EXECUTE FUNCTION book_availability_track();
+        END IF;
+    END IF;
+END
+';
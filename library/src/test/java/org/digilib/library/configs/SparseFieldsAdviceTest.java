@@ -0,0 +1,31 @@
+package org.digilib.library.configs;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.digilib.library.models.dto.book.BookData;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Null fields are dropped only from responses that selected their fields.
+ */
+class SparseFieldsAdviceTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .findAndRegisterModules()
+            .setFilterProvider(SparseFieldsAdvice.FULL);
+
+    private final BookData book = new BookData("9780000000002", "Title", null, null, null, null, null, null);
+
+    @Test
+    void fullResponsesKeepNullFields() throws Exception {
+        assertThat(objectMapper.writeValueAsString(book))
+                .contains("\"summary\":null", "\"imageUrl\":null");
+    }
+
+    @Test
+    void sparseResponsesOmitNullFields() throws Exception {
+        assertThat(objectMapper.writer(SparseFieldsAdvice.SPARSE).writeValueAsString(book))
+                .isEqualTo("{\"isbn\":\"9780000000002\",\"title\":\"Title\"}");
+    }
+}
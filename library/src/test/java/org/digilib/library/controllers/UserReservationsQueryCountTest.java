@@ -0,0 +1,119 @@
+package org.digilib.library.controllers;
+
+import jakarta.persistence.EntityManagerFactory;
+import net.ttddyy.dsproxy.QueryCountHolder;
+import org.digilib.library.TestcontainersConfiguration;
+import org.digilib.library.models.Book;
+import org.digilib.library.models.Reservation;
+import org.digilib.library.models.User;
+import org.digilib.library.models.dto.ReservationData;
+import org.digilib.library.repositories.BookRepository;
+import org.digilib.library.repositories.ReservationRepository;
+import org.digilib.library.repositories.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Lists the reservations of a user and checks that their books are loaded with the page, not one query per row.
+ */
+@SpringBootTest(properties = "decorator.datasource.datasource-proxy.count-query=true")
+@ActiveProfiles("test")
+@Import(TestcontainersConfiguration.class)
+class UserReservationsQueryCountTest {
+
+    private static final int RESERVATIONS = 10;
+
+    @Autowired
+    private UserController userController;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final String suffix = UUID.randomUUID().toString().substring(0, 8);
+    private final List<Book> books = new ArrayList<>();
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(User.builder()
+                .email("lister-" + suffix + "@digilib.org")
+                .password("not-used")
+                .firstName("Lister")
+                .lastName("Reservations")
+                .build());
+
+        int base = Math.floorMod(suffix.hashCode(), 1_000_000) * 100;
+        for (int i = 0; i < RESERVATIONS; i++) {
+            Book book = bookRepository.save(Book.builder()
+                    .isbn("979" + String.format("%010d", base + i))
+                    .title("Listed book " + i)
+                    .summary("Reserved to be listed")
+                    .imageUrl("https://example.org/cover.png")
+                    .build());
+            books.add(book);
+
+            reservationRepository.save(Reservation.builder()
+                    .book(book)
+                    .user(user)
+                    .barcode("QC-" + suffix + "-" + i)
+                    .build());
+        }
+
+        // a warm second-level cache would hide lazy loads of the books
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM reservations WHERE user_id = ?", user.getId());
+        bookRepository.deleteAll(books);
+        userRepository.delete(user);
+    }
+
+    @Test
+    void reservationPageIsLoadedInOneQuery() {
+        QueryCountHolder.clear();
+
+        // the transaction stands in for the open session of a web request
+        Page<ReservationData> page = transactionTemplate.execute(_ -> userController
+                .getCurrentUserReservations(user, 1, new String[]{"reservedAt"}, RESERVATIONS + 5)
+                .getBody());
+
+        long selects = QueryCountHolder.getGrandTotal().getSelect();
+
+        assertThat(page).isNotNull();
+        assertThat(page.getContent())
+                .hasSize(RESERVATIONS)
+                .allSatisfy(reservation -> assertThat(reservation.book().title()).startsWith("Listed book"));
+        assertThat(selects).isEqualTo(1);
+    }
+}
@@ -0,0 +1,32 @@
+package org.digilib.library.errors.exceptions;
+
+import org.digilib.library.models.User;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class InvalidRequestParamExceptionTest {
+
+    @Test
+    void acceptsMappedColumnsAsSorts() {
+        assertThatCode(() -> InvalidRequestParamException.notValidSorts(new String[]{"email", "id"}, User.class))
+                .doesNotThrowAnyException();
+    }
+
+    @Test
+    void rejectsTransientFieldsAsSorts() {
+        assertThatThrownBy(() -> InvalidRequestParamException.notValidSorts(new String[]{"claimsOnly"}, User.class))
+                .isInstanceOf(InvalidRequestParamException.class)
+                .extracting("paramName")
+                .isEqualTo("sorts");
+    }
+
+    @Test
+    void rejectsTransientFieldsAsCursorSorts() {
+        assertThatThrownBy(() -> InvalidRequestParamException.notKeysetSortable(new String[]{"claimsOnly"}, User.class))
+                .isInstanceOf(InvalidRequestParamException.class)
+                .extracting("paramName")
+                .isEqualTo("sorts");
+    }
+}
@@ -0,0 +1,127 @@
+package org.digilib.library.filters;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.digilib.library.models.Role;
+import org.digilib.library.models.User;
+import org.digilib.library.repositories.UserRepository;
+import org.digilib.library.services.JwtService;
+import org.digilib.library.services.PrincipalCache;
+import org.digilib.library.services.TokenRevocationList;
+import org.digilib.library.services.VerifiedTokenCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.DisabledException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isA;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+/**
+ * Authenticates requests on the stateless path, where the principal is built from the token claims alone.
+ */
+class JwtAuthFilterStatelessTest {
+
+    private static final String SECRET = "stateless-test-secret-key-that-is-at-least-256-bits-long";
+
+    private final JwtService jwtService = new JwtService(SECRET, 15, 7);
+
+    private final UserDetailsService userDetailsService = mock(UserDetailsService.class);
+
+    private final HandlerExceptionResolver handlerExceptionResolver = mock(HandlerExceptionResolver.class);
+
+    private final TokenRevocationList tokenRevocationList = new TokenRevocationList(15, mock(UserRepository.class));
+
+    private JwtAuthFilter filter;
+
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        filter = new JwtAuthFilter(
+                jwtService,
+                new VerifiedTokenCache(jwtService, false, 0, new SimpleMeterRegistry()),
+                userDetailsService,
+                mock(PrincipalCache.class),
+                tokenRevocationList,
+                handlerExceptionResolver
+        );
+        ReflectionTestUtils.setField(filter, "statelessPrincipal", true);
+
+        token = jwtService.generateAccessToken(User.builder()
+                .id(42)
+                .email("reader@digilib.org")
+                .firstName("Stored")
+                .roles(List.of(Role.builder().id(1).name("USER").build()))
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void authenticatesClaimsOnlyPrincipalWithoutLoadingTheUser() throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(bearer(token), new MockHttpServletResponse(), chain);
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertThat(authentication).isNotNull();
+        assertThat(authentication.getPrincipal()).isInstanceOfSatisfying(User.class, principal -> {
+            assertThat(principal.getId()).isEqualTo(42);
+            assertThat(principal.getEmail()).isEqualTo("reader@digilib.org");
+            assertThat(principal.isClaimsOnly()).isTrue();
+        });
+        assertThat(authentication.getAuthorities())
+                .extracting(Object::toString)
+                .containsExactly("ROLE_USER");
+        assertThat(chain.getRequest()).isNotNull();
+        verifyNoInteractions(userDetailsService);
+        verify(handlerExceptionResolver, never()).resolveException(any(), any(), any(), any());
+    }
+
+    @Test
+    void rejectsTokensOfRevokedUsers() throws Exception {
+        tokenRevocationList.revoke(42);
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(bearer(token), new MockHttpServletResponse(), chain);
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+        assertThat(chain.getRequest()).isNull();
+        verify(handlerExceptionResolver).resolveException(any(), any(), isNull(), isA(DisabledException.class));
+    }
+
+    @Test
+    void acceptsTokensAgainOnceTheUserIsReinstated() throws Exception {
+        tokenRevocationList.revoke(42);
+        tokenRevocationList.reinstate(42);
+
+        filter.doFilter(bearer(token), new MockHttpServletResponse(), new MockFilterChain());
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNotNull();
+    }
+
+    private static MockHttpServletRequest bearer(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users/me");
+        request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+}
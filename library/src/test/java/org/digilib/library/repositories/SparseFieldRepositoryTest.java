@@ -0,0 +1,128 @@
+package org.digilib.library.repositories;
+
+import org.digilib.library.TestcontainersConfiguration;
+import org.digilib.library.errors.exceptions.InvalidRequestParamException;
+import org.digilib.library.models.Book;
+import org.digilib.library.models.Genre;
+import org.digilib.library.models.dto.book.BookData;
+import org.digilib.library.repositories.SparseFieldRepository.Filter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Reads only the requested fields plus the id, and rejects fields the listed resource does not have.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(TestcontainersConfiguration.class)
+class SparseFieldRepositoryTest {
+
+    private static final int BOOKS = 3;
+
+    @Autowired
+    private SparseFieldRepository sparseFieldRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private GenreRepository genreRepository;
+
+    private final String suffix = UUID.randomUUID().toString().substring(0, 8);
+    private final List<Book> books = new ArrayList<>();
+    private Genre genre;
+
+    @BeforeEach
+    void setUp() {
+        genre = genreRepository.save(Genre.builder()
+                .title("Sparse fields test genre " + suffix)
+                .build());
+
+        int base = Math.floorMod(suffix.hashCode(), 1_000_000) * 100;
+        for (int i = 0; i < BOOKS; i++) {
+            books.add(bookRepository.save(Book.builder()
+                    .isbn("979" + String.format("%010d", base + i))
+                    .title("Sparse book " + i)
+                    .summary("Read without its summary")
+                    .imageUrl("https://example.org/cover.png")
+                    .genre(genre)
+                    .build()));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookRepository.deleteAll(books);
+        genreRepository.delete(genre);
+    }
+
+    @Test
+    void readsOnlyTheRequestedFieldsAndTheId() {
+        Page<BookData> page = sparseFieldRepository.findAll(
+                Book.class, BookData.class, Set.of("title"), byGenre(), PageRequest.of(0, BOOKS, Sort.by("isbn")));
+
+        assertThat(page.getTotalElements()).isEqualTo(BOOKS);
+        assertThat(page.getContent())
+                .hasSize(BOOKS)
+                .allSatisfy(book -> {
+                    assertThat(book.isbn()).isNotNull();
+                    assertThat(book.title()).startsWith("Sparse book");
+                    assertThat(book.summary()).isNull();
+                    assertThat(book.imageUrl()).isNull();
+                });
+    }
+
+    @Test
+    void returnsTheIdEvenWhenNoFieldIsRequested() {
+        Page<BookData> page = sparseFieldRepository.findAll(
+                Book.class, BookData.class, Set.of(), byGenre(), PageRequest.of(0, BOOKS, Sort.by("isbn")));
+
+        assertThat(page.getContent())
+                .extracting(BookData::isbn)
+                .containsExactlyElementsOf(books.stream().map(Book::getIsbn).toList());
+        assertThat(page.getContent()).allSatisfy(book -> assertThat(book.title()).isNull());
+    }
+
+    @Test
+    void slicesTellWhetherMoreRowsFollow() {
+        Slice<BookData> first = sparseFieldRepository.findSlice(
+                Book.class, BookData.class, Set.of("title"), byGenre(), PageRequest.of(0, BOOKS - 1, Sort.by("isbn")));
+        Slice<BookData> last = sparseFieldRepository.findSlice(
+                Book.class, BookData.class, Set.of("title"), byGenre(), PageRequest.of(1, BOOKS - 1, Sort.by("isbn")));
+
+        assertThat(first.getContent()).hasSize(BOOKS - 1);
+        assertThat(first.hasNext()).isTrue();
+        assertThat(last.getContent()).hasSize(1);
+        assertThat(last.hasNext()).isFalse();
+    }
+
+    @Test
+    void rejectsFieldsTheResourceDoesNotHave() {
+        assertThatThrownBy(() -> sparseFieldRepository.findAll(
+                Book.class, BookData.class, Set.of("title", "password"), PageRequest.of(0, BOOKS)))
+                .isInstanceOf(InvalidRequestParamException.class)
+                .extracting("paramName", "paramValue")
+                .containsExactly("fields", List.of("password"));
+    }
+
+    private Filter byGenre() {
+        return Filter.of("WHERE e.genre.id = :genreId", "genreId", genre.getId());
+    }
+}
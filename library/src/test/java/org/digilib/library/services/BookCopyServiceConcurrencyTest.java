@@ -0,0 +1,148 @@
+package org.digilib.library.services;
+
+import org.digilib.library.TestcontainersConfiguration;
+import org.digilib.library.models.Book;
+import org.digilib.library.models.BookCopy;
+import org.digilib.library.models.Library;
+import org.digilib.library.models.Status;
+import org.digilib.library.models.User;
+import org.digilib.library.repositories.BookCopyRepository;
+import org.digilib.library.repositories.BookRepository;
+import org.digilib.library.repositories.LibraryRepository;
+import org.digilib.library.repositories.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Fires thousands of parallel reservations at a single copy and checks that exactly one of them wins.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(TestcontainersConfiguration.class)
+class BookCopyServiceConcurrencyTest {
+
+    private static final int ATTEMPTS = 2000;
+    private static final int THREADS = 64;
+    private static final int USERS = 16;
+
+    @Autowired
+    private BookCopyService bookCopyService;
+
+    @Autowired
+    private BookCopyRepository bookCopyRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private LibraryRepository libraryRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final String suffix = UUID.randomUUID().toString().substring(0, 8);
+    private final List<User> users = new ArrayList<>();
+    private Book book;
+    private Library library;
+    private BookCopy copy;
+
+    @BeforeEach
+    void setUp() {
+        book = bookRepository.save(Book.builder()
+                .isbn("97900" + String.format("%08d", Math.floorMod(suffix.hashCode(), 100_000_000)))
+                .title("Concurrency test book")
+                .summary("Reserved by many users at once")
+                .imageUrl("https://example.org/cover.png")
+                .build());
+
+        library = libraryRepository.save(Library.builder()
+                .name("Concurrency test library " + suffix)
+                .address("Test street 1")
+                .phoneNumber("000")
+                .build());
+
+        copy = bookCopyRepository.save(BookCopy.builder()
+                .book(book)
+                .library(library)
+                .barcode("CT-" + suffix)
+                .status(Status.AVAILABLE)
+                .build());
+
+        for (int i = 0; i < USERS; i++) {
+            users.add(userRepository.save(User.builder()
+                    .email("reserver" + i + "-" + suffix + "@digilib.org")
+                    .password("not-used")
+                    .firstName("Reserver")
+                    .lastName(String.valueOf(i))
+                    .build()));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM reservations WHERE book_isbn = ?", book.getIsbn());
+        bookCopyRepository.deleteById(copy.getId());
+        libraryRepository.deleteById(library.getId());
+        bookRepository.deleteById(book.getIsbn());
+        userRepository.deleteAll(users);
+    }
+
+    @Test
+    void onlyOneOfManyConcurrentReservationsSucceeds() throws InterruptedException {
+        AtomicInteger reserved = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        Queue<Throwable> unexpected = new ConcurrentLinkedQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        for (int i = 0; i < ATTEMPTS; i++) {
+            String email = users.get(i % USERS).getEmail();
+            executor.submit(() -> {
+                try {
+                    start.await();
+                    bookCopyService.reserveCopy(copy.getId(), email);
+                    reserved.incrementAndGet();
+                } catch (IllegalStateException e) {
+                    rejected.incrementAndGet();
+                } catch (Throwable e) {
+                    unexpected.add(e);
+                }
+            });
+        }
+
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(2, TimeUnit.MINUTES)).isTrue();
+
+        assertThat(unexpected).isEmpty();
+        assertThat(reserved.get()).isEqualTo(1);
+        assertThat(rejected.get()).isEqualTo(ATTEMPTS - 1);
+        assertThat(bookCopyRepository.findById(copy.getId()))
+                .hasValueSatisfying(c -> assertThat(c.getStatus()).isEqualTo(Status.RESERVED));
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM reservations WHERE book_isbn = ?", Long.class, book.getIsbn()))
+                .isEqualTo(1L);
+    }
+}
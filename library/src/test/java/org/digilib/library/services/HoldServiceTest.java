@@ -0,0 +1,238 @@
+package org.digilib.library.services;
+
+import org.digilib.library.TestcontainersConfiguration;
+import org.digilib.library.models.Book;
+import org.digilib.library.models.Library;
+import org.digilib.library.models.Status;
+import org.digilib.library.models.User;
+import org.digilib.library.models.dto.HoldData;
+import org.digilib.library.models.dto.book.BookCopyCreateView;
+import org.digilib.library.models.dto.book.BookCopyData;
+import org.digilib.library.models.dto.book.BookCopyUpdateView;
+import org.digilib.library.models.dto.library.LibraryCreateView;
+import org.digilib.library.models.dto.library.LibraryData;
+import org.digilib.library.repositories.BookCopyRepository;
+import org.digilib.library.repositories.BookRepository;
+import org.digilib.library.repositories.HoldRepository;
+import org.digilib.library.repositories.LibraryRepository;
+import org.digilib.library.repositories.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Serves hold queues first come, first served from every path that makes a copy available,
+ * and drops the holds of deleted books and users.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(TestcontainersConfiguration.class)
+class HoldServiceTest {
+
+    private static final int USERS = 3;
+
+    @Autowired
+    private HoldService holdService;
+
+    @Autowired
+    private LibraryService libraryService;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private ReservationExpirySweeper reservationExpirySweeper;
+
+    @Autowired
+    private HoldRepository holdRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private BookCopyRepository bookCopyRepository;
+
+    @Autowired
+    private LibraryRepository libraryRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final String suffix = UUID.randomUUID().toString().substring(0, 8);
+    private final List<User> users = new ArrayList<>();
+    private final List<Long> extraLibraryIds = new ArrayList<>();
+    private Book book;
+    private Library library;
+
+    @BeforeEach
+    void setUp() {
+        book = bookRepository.save(Book.builder()
+                .isbn("97901" + String.format("%08d", Math.floorMod(suffix.hashCode(), 100_000_000)))
+                .title("Hold queue test book")
+                .summary("Waited for by several users")
+                .imageUrl("https://example.org/cover.png")
+                .build());
+
+        library = libraryRepository.save(Library.builder()
+                .name("Hold queue test library " + suffix)
+                .address("Test street 2")
+                .phoneNumber("000")
+                .build());
+
+        for (int i = 0; i < USERS; i++) {
+            users.add(userRepository.save(User.builder()
+                    .email("holder" + i + "-" + suffix + "@digilib.org")
+                    .password("not-used")
+                    .firstName("Holder")
+                    .lastName(String.valueOf(i))
+                    .build()));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM reservations WHERE book_isbn = ?", book.getIsbn());
+        libraryRepository.deleteById(library.getId());
+        extraLibraryIds.forEach(libraryRepository::deleteById);
+        bookRepository.findById(book.getIsbn()).ifPresent(bookRepository::delete);
+        users.stream()
+                .filter(user -> userRepository.existsById(user.getId()))
+                .forEach(userRepository::delete);
+    }
+
+    @Test
+    void newCopiesGoToTheOldestHoldFirst() {
+        enqueueAll();
+
+        libraryService.addBookCopyTo(library, new BookCopyCreateView(book.getIsbn(), "HQ-" + suffix + "-1"));
+
+        assertThat(hold(0).allocated()).isTrue();
+        assertThat(hold(1).position()).isEqualTo(1);
+        assertThat(hold(2).position()).isEqualTo(2);
+
+        libraryService.addBookCopyTo(library, new BookCopyCreateView(book.getIsbn(), "HQ-" + suffix + "-2"));
+
+        assertThat(hold(1).allocated()).isTrue();
+        assertThat(hold(2).position()).isEqualTo(1);
+        assertThat(reservedCopies()).isEqualTo(2);
+    }
+
+    @Test
+    void copiesOfANewLibraryGoToTheOldestHoldsFirst() {
+        enqueueAll();
+
+        LibraryData created = libraryService.createNewLibrary(new LibraryCreateView(
+                "Hold queue opening library " + suffix,
+                "Test street 3",
+                "0000000000",
+                null,
+                List.of(book.getIsbn(), book.getIsbn())
+        ));
+        extraLibraryIds.add(created.id());
+
+        assertThat(hold(0).allocated()).isTrue();
+        assertThat(hold(1).allocated()).isTrue();
+        assertThat(hold(2).position()).isEqualTo(1);
+        assertThat(reservedCopies()).isEqualTo(2);
+    }
+
+    @Test
+    void concurrentHoldsOfOneUserKeepOnePlace() {
+        String email = users.get(0).getEmail();
+
+        List<CompletableFuture<HoldData>> requests = List.of(
+                CompletableFuture.supplyAsync(() -> holdService.enqueue(book.getIsbn(), email)),
+                CompletableFuture.supplyAsync(() -> holdService.enqueue(book.getIsbn(), email))
+        );
+
+        assertThat(requests.stream().map(CompletableFuture::join).toList())
+                .allSatisfy(hold -> assertThat(hold.position()).isEqualTo(1));
+        assertThat(holdCount()).isEqualTo(1);
+    }
+
+    @Test
+    void returnedCopyGoesToTheHeadOfTheQueue() {
+        BookCopyData copy = libraryService.addBookCopyTo(library, new BookCopyCreateView(book.getIsbn(), "HQ-" + suffix + "-1"));
+        libraryService.updateBookCopy(library, copy.id(), new BookCopyUpdateView(null, Status.CHECKED_OUT));
+        enqueueAll();
+
+        assertThat(hold(0).position()).isEqualTo(1);
+
+        libraryService.updateBookCopy(library, copy.id(), new BookCopyUpdateView(null, Status.AVAILABLE));
+
+        assertThat(hold(0).allocated()).isTrue();
+        assertThat(hold(1).position()).isEqualTo(1);
+        assertThat(bookCopyRepository.findById(copy.id()))
+                .hasValueSatisfying(c -> assertThat(c.getStatus()).isEqualTo(Status.RESERVED));
+    }
+
+    @Test
+    void expiredReservationIsHandedToTheNextHold() {
+        libraryService.addBookCopyTo(library, new BookCopyCreateView(book.getIsbn(), "HQ-" + suffix + "-1"));
+        enqueueAll();
+        assertThat(hold(0).allocated()).isTrue();
+
+        jdbcTemplate.update(
+                "UPDATE reservations SET expires_at = now() - interval '1 minute' WHERE book_isbn = ? AND user_id = ?",
+                book.getIsbn(), users.get(0).getId());
+        reservationExpirySweeper.sweep();
+
+        assertThat(holdRepository.findByBook_IsbnAndUser_Id(book.getIsbn(), users.get(0).getId())).isEmpty();
+        assertThat(hold(1).allocated()).isTrue();
+        assertThat(hold(2).position()).isEqualTo(1);
+        assertThat(reservedCopies()).isEqualTo(1);
+    }
+
+    @Test
+    void deletingABookDropsItsHolds() {
+        enqueueAll();
+
+        bookService.deleteByIsbn(book.getIsbn());
+
+        assertThat(bookRepository.existsById(book.getIsbn())).isFalse();
+        assertThat(holdCount()).isZero();
+    }
+
+    @Test
+    void deletingAUserDropsTheirHolds() {
+        enqueueAll();
+
+        userRepository.delete(users.get(1));
+
+        assertThat(holdCount()).isEqualTo(USERS - 1);
+        assertThat(hold(2).position()).isEqualTo(2);
+    }
+
+    private void enqueueAll() {
+        users.forEach(user -> holdService.enqueue(book.getIsbn(), user.getEmail()));
+    }
+
+    private HoldData hold(int user) {
+        return holdService.findHold(book.getIsbn(), users.get(user).getEmail());
+    }
+
+    private long reservedCopies() {
+        return bookCopyRepository.findByBookIsbnWithLibrary(book.getIsbn()).stream()
+                .filter(copy -> copy.status() == Status.RESERVED)
+                .count();
+    }
+
+    private long holdCount() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM holds WHERE book_isbn = ?", Long.class, book.getIsbn());
+    }
+}
@@ -0,0 +1,84 @@
+package org.digilib.library.services;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.digilib.library.models.Role;
+import org.digilib.library.models.User;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the per request cost of the old triple parse token check with {@link JwtService#verify(String)}.
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=org.digilib.library.services.JwtServiceBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+    private static final String SECRET = "benchmark-secret-key-that-is-at-least-256-bits-long";
+
+    private Key key;
+    private JwtService jwtService;
+    private User principal;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        jwtService = new JwtService(SECRET, 15, 7);
+        principal = User.builder()
+                .id(1)
+                .email("reader@digilib.org")
+                .roles(List.of(Role.builder().id(1).name("USER").build()))
+                .build();
+        token = jwtService.generateAccessToken(principal);
+    }
+
+    /**
+     * Subject extraction, validity check and expiration check, each building a new parser.
+     */
+    @Benchmark
+    public boolean tripleParse() {
+        String subject = legacyParse(token).getSubject();
+        Claims claims = legacyParse(token);
+        boolean expired = legacyParse(token).getExpiration().before(new Date());
+
+        return subject.equals(principal.getUsername())
+                && claims.getSubject().equals(principal.getUsername())
+                && !expired;
+    }
+
+    @Benchmark
+    public boolean singleVerify() {
+        VerifiedToken verified = jwtService.verify(token);
+        return jwtService.isValidToken(verified, principal);
+    }
+
+    private Claims legacyParse(String jws) {
+        return Jwts.parserBuilder()
+                .setSigningKey(key)
+                .build()
+                .parseClaimsJws(jws)
+                .getBody();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtServiceBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
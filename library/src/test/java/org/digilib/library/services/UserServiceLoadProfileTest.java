@@ -0,0 +1,56 @@
+package org.digilib.library.services;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.digilib.library.models.User;
+import org.digilib.library.repositories.RoleRepository;
+import org.digilib.library.repositories.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tells claims-only principals from loaded users by their marker, not by which fields happen to be set.
+ */
+class UserServiceLoadProfileTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+
+    private final UserService userService = new UserService(
+            userRepository,
+            mock(RoleRepository.class),
+            mock(PasswordEncoder.class),
+            mock(HttpServletRequest.class),
+            mock(PrincipalCache.class),
+            mock(TokenRevocationList.class)
+    );
+
+    private final JwtService jwtService = new JwtService("profile-test-secret-key-that-is-at-least-256-bits-long", 15, 7);
+
+    @Test
+    void reloadsClaimsOnlyPrincipals() {
+        User stored = User.builder().id(7).email("reader@digilib.org").firstName("Ada").lastName("Reader").build();
+        when(userRepository.findById(7L)).thenReturn(Optional.of(stored));
+
+        User principal = jwtService.principalFrom(jwtService.verify(jwtService.generateAccessToken(stored)));
+
+        assertThat(principal.isClaimsOnly()).isTrue();
+        assertThat(userService.loadProfile(principal)).isSameAs(stored);
+    }
+
+    @Test
+    void keepsLoadedUsersEvenWithoutFirstName() {
+        User loaded = User.builder().id(8).email("anonymous@digilib.org").roles(List.of()).build();
+
+        assertThat(userService.loadProfile(loaded)).isSameAs(loaded);
+        verify(userRepository, never()).findById(anyLong());
+    }
+}
@@ -0,0 +1,41 @@
+package org.digilib.library.utils;
+
+import org.digilib.library.errors.exceptions.InvalidRequestParamException;
+import org.digilib.library.models.Book;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CursorsTest {
+
+    private final String titleCursor = Cursors.encode(ScrollPosition.forward(Map.of("title", "Clean Code", "isbn", "9780132350884")));
+
+    @Test
+    void decodesCursorOfTheSameSorts() {
+        ScrollPosition position = Cursors.decode(titleCursor, Book.class, new String[]{"title"});
+
+        assertThat(position).isInstanceOfSatisfying(KeysetScrollPosition.class, keyset ->
+                assertThat(keyset.getKeys()).containsEntry("title", "Clean Code").containsEntry("isbn", "9780132350884"));
+    }
+
+    @Test
+    void rejectsCursorReusedWithOtherSorts() {
+        assertThatThrownBy(() -> Cursors.decode(titleCursor, Book.class, new String[]{"imageUrl"}))
+                .isInstanceOf(InvalidRequestParamException.class)
+                .extracting("paramName")
+                .isEqualTo(Cursors.CURSOR_PARAM);
+    }
+
+    @Test
+    void rejectsCursorWithoutTheIdKey() {
+        String cursor = Cursors.encode(ScrollPosition.forward(Map.of("title", "Clean Code")));
+
+        assertThatThrownBy(() -> Cursors.decode(cursor, Book.class, new String[]{"title"}))
+                .isInstanceOf(InvalidRequestParamException.class);
+    }
+}